@@ -0,0 +1,52 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.*;
+
+/**
+ * on a repository interface, reads the ids passed to {@code findById} by concurrent threads with one query. A thread
+ * looking for an id another thread is already reading waits for that read instead of querying again.
+ * <p>
+ * The first thread of a batch waits up to {@link #window()} for other ids, then reads them all. It only waits while
+ * other lookups are running, a lone {@code findById} is read at once. Calls inside a transaction are read on their
+ * own, with the connection of the transaction.
+ *
+ * @author Jarvis Song
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(value = { TYPE, ANNOTATION_TYPE })
+@Documented
+public @interface BatchedFindById {
+
+	/**
+	 * milliseconds a batch collects ids before it is read.
+	 */
+	long window() default 2;
+
+	/**
+	 * number of ids which has a batch read at once, without waiting for the end of its window.
+	 */
+	int maxBatchSize() default 100;
+}
@@ -0,0 +1,50 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.*;
+
+/**
+ * keep the entities read by {@code findById} and {@code findAllById} of the repository in memory, by id.
+ * <p>
+ * Writes through the repository evict the entities they touch. Writes through other statements, query methods or
+ * other applications are only seen after {@link #ttl()}, so this fits entities that rarely change.
+ *
+ * @author Jarvis Song
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(value = { TYPE, ANNOTATION_TYPE })
+@Documented
+public @interface EntityCache {
+
+	/**
+	 * seconds an entity is kept after it was read.
+	 */
+	long ttl() default 60;
+
+	/**
+	 * max number of entities kept, the least recently read are dropped first.
+	 */
+	int maxSize() default 1024;
+}
@@ -0,0 +1,84 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.*;
+
+/**
+ * how the total of a {@link org.springframework.data.domain.Page} query is counted. On a repository interface it
+ * applies to {@code findAll(Pageable)}, {@code findAll(Example, Pageable)} and all page query methods which are not
+ * annotated themselves.
+ *
+ * @author Jarvis Song
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(value = { TYPE, METHOD, ANNOTATION_TYPE })
+@Documented
+public @interface PageCount {
+
+	Strategy value() default Strategy.EXACT;
+
+	/**
+	 * seconds a total counted by {@link Strategy#CACHED} is reused.
+	 */
+	long ttl() default 60;
+
+	enum Strategy {
+
+		/**
+		 * run the count query after the page query, when the total can not be told from the page itself.
+		 */
+		EXACT,
+
+		/**
+		 * run the count query on another thread and connection while the page query runs. Falls back to {@link #EXACT}
+		 * inside a read-write transaction, whose uncommitted rows another connection could not see.
+		 */
+		PARALLEL,
+
+		/**
+		 * reuse a total counted for the same query and parameters for {@link PageCount#ttl()} seconds.
+		 */
+		CACHED,
+
+		/**
+		 * use the row count estimate the database keeps for the table, for queries without condition like
+		 * {@code findAll(Pageable)}. Falls back to {@link #EXACT} for queries with a condition, or when the dialect has
+		 * no estimate.
+		 */
+		ESTIMATED,
+
+		/**
+		 * select the total as {@code count(*) over ()} along with the rows, one query instead of two. Falls back to
+		 * {@link #EXACT} when the dialect has no window functions.
+		 */
+		WINDOW,
+
+		/**
+		 * do not count, read one more row to tell whether there is a next page. The total of the page is then only a
+		 * lower bound, use {@link org.springframework.data.domain.Page#hasNext()}.
+		 */
+		SKIP
+	}
+}
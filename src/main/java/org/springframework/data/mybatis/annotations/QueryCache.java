@@ -0,0 +1,54 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.*;
+
+/**
+ * keep the results of a query method in memory, by its arguments.
+ * <p>
+ * Writes through a repository to the table of the query entity drop all results cached for the table. Writes through
+ * query methods, other statements or other applications are only seen after {@link #ttl()}.
+ * <p>
+ * Each caller gets its own copy of the entities, lists, pages and slices of a cached result, other result objects like
+ * projections are shared and must not be changed. Arguments are compared by {@code equals}, arrays by their elements,
+ * so parameters of types not implementing {@code equals} are rejected.
+ *
+ * @author Jarvis Song
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(value = { METHOD, ANNOTATION_TYPE })
+@Documented
+public @interface QueryCache {
+
+	/**
+	 * seconds a result is kept after it was read.
+	 */
+	long ttl() default 60;
+
+	/**
+	 * max number of results kept, the least recently read are dropped first.
+	 */
+	int maxSize() default 256;
+}
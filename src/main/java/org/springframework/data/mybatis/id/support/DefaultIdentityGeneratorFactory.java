@@ -50,6 +50,10 @@ public class DefaultIdentityGeneratorFactory<ID extends Serializable, T>
 
 	public static final String DEFAULT_NUMERICAL_TYPE_GENERATOR = "sequenceTable";
 
+	public static final String DEFAULT_SEQUENCE_GENERATOR = "sequence";
+
+	public static final String DEFAULT_SNOWFLAKE_GENERATOR = "snowflake";
+
 	private Map<String, IdentityGenerator<? extends Serializable>> autoGenerationTypeGeneratorMapping = new HashMap<>();
 
 	private SqlSessionFactory sqlSessionFactory;
@@ -58,10 +62,18 @@ public class DefaultIdentityGeneratorFactory<ID extends Serializable, T>
 	
 	private TableGeneratorConfig tableGeneratorConfig;
 
+	private SnowflakeGeneratorConfig snowflakeGeneratorConfig;
+
 	public DefaultIdentityGeneratorFactory(SqlSessionFactory sqlSessionFactory, Dialect dialect,TableGeneratorConfig tableGeneratorConfig) {
+		this(sqlSessionFactory, dialect, tableGeneratorConfig, null);
+	}
+
+	public DefaultIdentityGeneratorFactory(SqlSessionFactory sqlSessionFactory, Dialect dialect,
+			TableGeneratorConfig tableGeneratorConfig, SnowflakeGeneratorConfig snowflakeGeneratorConfig) {
 		this.sqlSessionFactory = sqlSessionFactory;
 		this.dialect = dialect;
 		this.tableGeneratorConfig= tableGeneratorConfig;
+		this.snowflakeGeneratorConfig = snowflakeGeneratorConfig;
 	}
 
 	@Autowired(required = false)
@@ -79,13 +91,22 @@ public class DefaultIdentityGeneratorFactory<ID extends Serializable, T>
 		}
 
 		if (type == GenerationType.IDENTITY) {
-			return (IdentityGenerator<ID>) autoGenerationTypeGeneratorMapping.get(DEFAULT_STRING_TYPE_ID_GENERATOR);
+			// identity columns are generated by the database on insert.
+			return null;
 		}
 
 		if (type == GenerationType.TABLE) {
 			return (IdentityGenerator<ID>) autoGenerationTypeGeneratorMapping.get(DEFAULT_NUMERICAL_TYPE_GENERATOR);
 		}
 
+		if (type == GenerationType.SEQUENCE) {
+			// databases without sequences keep them in a table.
+			identityGenerator = (IdentityGenerator<ID>) autoGenerationTypeGeneratorMapping
+					.get(DEFAULT_SEQUENCE_GENERATOR);
+			return null != identityGenerator ? identityGenerator
+					: (IdentityGenerator<ID>) autoGenerationTypeGeneratorMapping.get(DEFAULT_NUMERICAL_TYPE_GENERATOR);
+		}
+
 		if (type == GenerationType.AUTO) {
 			if (StringUtils.isEmpty(generator)) {
 				if (pp.getActualType().equals(String.class)) {
@@ -99,6 +120,13 @@ public class DefaultIdentityGeneratorFactory<ID extends Serializable, T>
 		return identityGenerator;
 	}
 
+	/**
+	 * @return the generator of {@link GenerationType#TABLE} ids, to read its metrics.
+	 */
+	public TableGenerator getTableGenerator() {
+		return (TableGenerator) autoGenerationTypeGeneratorMapping.get(DEFAULT_NUMERICAL_TYPE_GENERATOR);
+	}
+
 	public void setCustomIdentityGeneratorFactory(CustomIdentityGeneratorFactory<ID, T> customIdentityGeneratorFactory) {
 		this.customIdentityGeneratorFactory = customIdentityGeneratorFactory;
 	}
@@ -107,9 +135,15 @@ public class DefaultIdentityGeneratorFactory<ID extends Serializable, T>
 	public void afterPropertiesSet() throws Exception {
 		IdentityGenerator<? extends Serializable> uuidGenerator = new UUIDGenerator();
 		autoGenerationTypeGeneratorMapping.put(DEFAULT_STRING_TYPE_ID_GENERATOR, uuidGenerator);
+		autoGenerationTypeGeneratorMapping.put(DEFAULT_SNOWFLAKE_GENERATOR,
+				new SnowflakeGenerator(snowflakeGeneratorConfig));
 		TableGenerator sequenceTableGenerator = new TableGenerator(
 				sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(), dialect,tableGeneratorConfig);
 		sequenceTableGenerator.afterPropertiesSet();
 		autoGenerationTypeGeneratorMapping.put(DEFAULT_NUMERICAL_TYPE_GENERATOR, sequenceTableGenerator);
+		if (null != dialect.getSequenceNextValString(SequenceGenerator.DEF_SEQUENCE_NAME)) {
+			autoGenerationTypeGeneratorMapping.put(DEFAULT_SEQUENCE_GENERATOR,
+					new SequenceGenerator(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(), dialect));
+		}
 	}
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2018-present the original author or authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.springframework.data.mybatis.id.support;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * a block of ids allocated in the database at once and handed out in memory, each value exactly once.
+ *
+ * @author Jarvis Song
+ */
+class IdentityBlock {
+
+	static final IdentityBlock EMPTY = new IdentityBlock(0, 0);
+
+	// the next value to hand out
+	final AtomicLong next;
+
+	// the value at which we'll hit the db again
+	final long limit;
+
+	// the value from which the next block is worth fetching ahead, the last quarter of the block starts there
+	final long prefetchAt;
+
+	IdentityBlock(long value, long limit) {
+		this.next = new AtomicLong(value);
+		this.limit = limit;
+		this.prefetchAt = limit > value ? limit - Math.max(1, (limit - value) / 4) : -1;
+	}
+}
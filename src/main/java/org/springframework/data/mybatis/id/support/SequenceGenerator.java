@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2018-present the original author or authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.springframework.data.mybatis.id.support;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.mybatis.id.IdentityGenerator;
+import org.springframework.data.mybatis.repository.dialect.Dialect;
+import org.springframework.data.mybatis.utils.StringUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.util.Assert;
+
+/**
+ * 实现了 {@link javax.persistence.SequenceGenerator}.
+ * <p>
+ * The sequence increments by the allocation size, so each value read from it starts a block of ids handed out
+ * without going to the database, like the pooled optimizer of JPA providers. The increment is checked in the catalog
+ * before the first value is read, a sequence incrementing by another amount fails, one missing from the catalog is
+ * created.
+ * <p>
+ * When the dialect can not read the catalog, each value {@code v} starts the block
+ * {@code [v * allocationSize, (v + 1) * allocationSize)} instead, which never overlaps whatever the increment.
+ *
+ * @author Jarvis Song
+ */
+public class SequenceGenerator implements IdentityGenerator<Serializable> {
+
+	public static final String DEF_SEQUENCE_NAME = "mybatis_sequence";
+
+	public static final int DEFAULT_INITIAL_VALUE = 1;
+
+	public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+	private Log logger = LogFactory.getLog(SequenceGenerator.class);
+
+	private ConcurrentHashMap<String, SequenceState> sequenceStateMapping = new ConcurrentHashMap<>();
+
+	private Dialect dialect;
+
+	private JdbcTemplate template;
+
+	public SequenceGenerator(DataSource dataSource, Dialect dialect) {
+		Assert.notNull(dialect.getSequenceNextValString(DEF_SEQUENCE_NAME),
+				"Dialect " + dialect.getClass().getSimpleName() + " does not support sequences!");
+		this.dialect = dialect;
+		DelegatingDataSource ds = new DelegatingDataSource();
+		ds.setTargetDataSource(dataSource);
+		// 避免受到事务传播性影响
+		this.template = new JdbcTemplate(ds);
+	}
+
+	@Override
+	public Serializable generate(PersistentProperty<?> persistentProperty) {
+		javax.persistence.SequenceGenerator sequenceGeneratorConfig = persistentProperty
+				.findAnnotation(javax.persistence.SequenceGenerator.class);
+		PersistentEntity<?, ?> owner = persistentProperty.getOwner();
+		if (null == sequenceGeneratorConfig && null != owner) {
+			sequenceGeneratorConfig = owner.findAnnotation(javax.persistence.SequenceGenerator.class);
+		}
+
+		String sequenceName = DEF_SEQUENCE_NAME;
+
+		int initialValue = DEFAULT_INITIAL_VALUE;
+
+		int incrementSize = DEFAULT_ALLOCATION_SIZE;
+
+		if (null != sequenceGeneratorConfig) {
+			if (!org.springframework.util.StringUtils.isEmpty(sequenceGeneratorConfig.sequenceName())) {
+				sequenceName = sequenceGeneratorConfig.sequenceName();
+			}
+			if (!org.springframework.util.StringUtils.isEmpty(sequenceGeneratorConfig.schema())) {
+				sequenceName = StringUtils.qualify(sequenceGeneratorConfig.schema(), sequenceName);
+			} else if (!org.springframework.util.StringUtils.isEmpty(sequenceGeneratorConfig.catalog())) {
+				sequenceName = StringUtils.qualify(sequenceGeneratorConfig.catalog(), sequenceName);
+			}
+			initialValue = sequenceGeneratorConfig.initialValue();
+			incrementSize = sequenceGeneratorConfig.allocationSize();
+		}
+		Assert.isTrue(incrementSize > 0, "allocationSize of sequence " + sequenceName + " must be greater than 0!");
+
+		int initial = initialValue;
+		int increment = incrementSize;
+		SequenceState state = sequenceStateMapping.computeIfAbsent(sequenceName,
+				name -> new SequenceState(name, initial, increment));
+		return state.next();
+	}
+
+	private class SequenceState {
+
+		private final String sequenceName;
+
+		private final int initialValue;
+
+		private final int incrementSize;
+
+		private volatile IdentityBlock current = IdentityBlock.EMPTY;
+
+		// whether values of the sequence are the first ids of their blocks, null until the catalog was read.
+		private Boolean pooled;
+
+		SequenceState(String sequenceName, int initialValue, int incrementSize) {
+			this.sequenceName = sequenceName;
+			this.initialValue = initialValue;
+			this.incrementSize = incrementSize;
+		}
+
+		Long next() {
+			for (;;) {
+				IdentityBlock block = current;
+				long value = block.next.getAndIncrement();
+				if (value < block.limit) {
+					return value;
+				}
+				synchronized (this) {
+					if (current == block) {
+						current = allocate();
+					}
+				}
+			}
+		}
+
+		private IdentityBlock allocate() {
+			if (null == pooled) {
+				pooled = prepare();
+			}
+			long value = template.queryForObject(dialect.getSequenceNextValString(sequenceName), Long.class);
+			return pooled ? new IdentityBlock(value, value + incrementSize)
+					: new IdentityBlock(value * incrementSize, (value + 1) * incrementSize);
+		}
+
+		/**
+		 * @return whether the sequence increments by the allocation size.
+		 */
+		private boolean prepare() {
+			String sql = dialect.getSequenceIncrementString(sequenceName.indexOf('.') > 0);
+			if (null == sql) {
+				return false;
+			}
+			List<Long> increments = readIncrements(sql);
+			if (increments.isEmpty()) {
+				logger.debug("Init Sequence " + sequenceName + " .");
+				try {
+					template.execute(dialect.getCreateSequenceString(sequenceName, initialValue, incrementSize));
+					return true;
+				} catch (DataAccessException e) {
+					// created by another generator meanwhile.
+					increments = readIncrements(sql);
+					if (increments.isEmpty()) {
+						throw new IdentityGenerationException("Create Sequence " + sequenceName + " fail: ", e);
+					}
+				}
+			}
+			long increment = increments.get(0);
+			if (increment != incrementSize) {
+				throw new IdentityGenerationException("Sequence " + sequenceName + " increments by " + increment
+						+ " but its allocationSize is " + incrementSize
+						+ ", blocks of ids would overlap. Alter the sequence or the allocationSize.");
+			}
+			return true;
+		}
+
+		private List<Long> readIncrements(String sql) {
+			int dot = sequenceName.lastIndexOf('.');
+			String name = sequenceName.substring(dot + 1).toUpperCase(Locale.ROOT);
+			if (dot <= 0) {
+				return template.queryForList(sql, Long.class, name);
+			}
+			// a same-named sequence of another schema increments by its own amount.
+			String qualifier = sequenceName.substring(0, dot);
+			String schema = qualifier.substring(qualifier.lastIndexOf('.') + 1).toUpperCase(Locale.ROOT);
+			return template.queryForList(sql, Long.class, name, schema);
+		}
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2018-present the original author or authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.springframework.data.mybatis.id.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.mybatis.id.IdentityGenerator;
+import org.springframework.util.Assert;
+
+/**
+ * time ordered 64 bit ids generated without the database, in the layout of twitter snowflake: milliseconds since
+ * {@link #EPOCH}, datacenter id, worker id and a sequence within the millisecond.
+ * <p>
+ * The millisecond and sequence of the last id are packed in one {@link AtomicLong} and advanced by CAS. When the
+ * clock moves backwards the ids keep counting on the last millisecond, waiting for the clock once its sequence runs
+ * out, and fail if the clock moved back more than {@link #MAX_CLOCK_BACKWARD_MILLIS}.
+ * <p>
+ * Every node needs a worker and datacenter id of its own, nodes sharing them generate the same ids. Without either id
+ * configured the node uses 0 for both, and warns about it when it generates its first id.
+ *
+ * @author Jarvis Song
+ */
+public class SnowflakeGenerator implements IdentityGenerator<Long> {
+
+	/**
+	 * 2016-01-01T00:00:00Z, 41 bits of milliseconds last until 2085.
+	 */
+	public static final long EPOCH = 1451606400000L;
+
+	public static final int DEFAULT_WORKER_ID_BITS = 5;
+
+	public static final int DEFAULT_DATACENTER_ID_BITS = 5;
+
+	public static final long MAX_CLOCK_BACKWARD_MILLIS = 5000;
+
+	private static final int TIMESTAMP_BITS = 41;
+
+	private Log logger = LogFactory.getLog(SnowflakeGenerator.class);
+
+	private final int sequenceBits;
+
+	private final long sequenceMask;
+
+	private final long node;
+
+	// milliseconds since epoch << sequenceBits | sequence, of the last id
+	private final AtomicLong state = new AtomicLong();
+
+	// whether neither worker nor datacenter id was configured and no warning was logged yet
+	private volatile boolean unconfigured;
+
+	public SnowflakeGenerator(SnowflakeGeneratorConfig config) {
+		int workerIdBits = DEFAULT_WORKER_ID_BITS;
+		int datacenterIdBits = DEFAULT_DATACENTER_ID_BITS;
+		long workerId = 0;
+		long datacenterId = 0;
+		boolean configured = false;
+		if (null != config) {
+			if (null != config.getWorkerIdBits()) {
+				workerIdBits = config.getWorkerIdBits();
+			}
+			if (null != config.getDatacenterIdBits()) {
+				datacenterIdBits = config.getDatacenterIdBits();
+			}
+			if (null != config.getWorkerId()) {
+				workerId = config.getWorkerId();
+				configured = true;
+			}
+			if (null != config.getDatacenterId()) {
+				datacenterId = config.getDatacenterId();
+				configured = true;
+			}
+		}
+		this.unconfigured = !configured;
+		Assert.isTrue(workerIdBits >= 0 && datacenterIdBits >= 0, "id bits must not be negative!");
+		this.sequenceBits = 63 - TIMESTAMP_BITS - workerIdBits - datacenterIdBits;
+		Assert.isTrue(sequenceBits > 0, "workerIdBits and datacenterIdBits leave no bits for the sequence!");
+		Assert.isTrue(workerId >= 0 && workerId < 1L << workerIdBits,
+				"workerId must be between 0 and " + ((1L << workerIdBits) - 1) + "!");
+		Assert.isTrue(datacenterId >= 0 && datacenterId < 1L << datacenterIdBits,
+				"datacenterId must be between 0 and " + ((1L << datacenterIdBits) - 1) + "!");
+		this.sequenceMask = (1L << sequenceBits) - 1;
+		this.node = (datacenterId << workerIdBits | workerId) << sequenceBits;
+	}
+
+	@Override
+	public Long generate(PersistentProperty<?> persistentProperty) {
+		if (unconfigured) {
+			unconfigured = false;
+			logger.warn("Snowflake generator has no worker and datacenter id configured and uses 0 for both, nodes "
+					+ "without ids of their own generate the same ids.");
+		}
+		return nextId();
+	}
+
+	public long nextId() {
+		for (;;) {
+			long last = state.get();
+			long lastMillis = last >>> sequenceBits;
+			long millis = currentTimeMillis() - EPOCH;
+			long next;
+			if (millis > lastMillis) {
+				next = millis << sequenceBits;
+			} else {
+				long behind = lastMillis - millis;
+				if (behind > MAX_CLOCK_BACKWARD_MILLIS) {
+					throw new IdentityGenerationException(
+							"Clock moved backwards by " + behind + " ms, refusing to generate identity.");
+				}
+				if ((last & sequenceMask) < sequenceMask) {
+					next = last + 1;
+				} else {
+					// the sequence of the millisecond ran out, wait for the next one.
+					if (behind > 0) {
+						LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(behind));
+					} else {
+						Thread.yield();
+					}
+					continue;
+				}
+			}
+			if (state.compareAndSet(last, next)) {
+				long timestamp = next >>> sequenceBits;
+				return timestamp << (63 - TIMESTAMP_BITS) | node | (next & sequenceMask);
+			}
+		}
+	}
+
+	protected long currentTimeMillis() {
+		return System.currentTimeMillis();
+	}
+}
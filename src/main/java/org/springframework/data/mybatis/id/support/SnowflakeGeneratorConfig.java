@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2018-present the original author or authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.springframework.data.mybatis.id.support;
+
+/**
+ * 
+ * @author Jarvis Song
+ */
+public class SnowflakeGeneratorConfig {
+
+	private Integer workerId;
+
+	private Integer datacenterId;
+
+	private Integer workerIdBits;
+
+	private Integer datacenterIdBits;
+
+	public Integer getWorkerId() {
+		return workerId;
+	}
+
+	public void setWorkerId(Integer workerId) {
+		this.workerId = workerId;
+	}
+
+	public Integer getDatacenterId() {
+		return datacenterId;
+	}
+
+	public void setDatacenterId(Integer datacenterId) {
+		this.datacenterId = datacenterId;
+	}
+
+	public Integer getWorkerIdBits() {
+		return workerIdBits;
+	}
+
+	public void setWorkerIdBits(Integer workerIdBits) {
+		this.workerIdBits = workerIdBits;
+	}
+
+	public Integer getDatacenterIdBits() {
+		return datacenterIdBits;
+	}
+
+	public void setDatacenterIdBits(Integer datacenterIdBits) {
+		this.datacenterIdBits = datacenterIdBits;
+	}
+}
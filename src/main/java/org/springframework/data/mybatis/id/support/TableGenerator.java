@@ -27,8 +27,17 @@ import java.io.Serializable;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.Types;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.sql.DataSource;
 
@@ -45,6 +54,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.DelegatingDataSource;
 import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 /**
  * 实现了 {@link javax.persistence.TableGenerator}.
@@ -54,6 +64,17 @@ import org.springframework.jdbc.support.MetaDataAccessException;
  */
 public class TableGenerator implements IdentityGenerator<Serializable>, InitializingBean {
 
+	private static final ThreadPoolExecutor PREFETCH_EXECUTOR;
+
+	static {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("mybatis-id-prefetch-");
+		threadFactory.setDaemon(true);
+		// shared by all generators and segments, each prefetch runs on a thread of its own so a slow segment table
+		// does not hold up the others. When all threads are busy the block is allocated once it is needed instead.
+		PREFETCH_EXECUTOR = new ThreadPoolExecutor(0, Runtime.getRuntime().availableProcessors() * 2, 60L,
+				TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory);
+	}
+
 	private Log logger = LogFactory.getLog(TableGenerator.class);
 
 	private ConcurrentHashMap<String, GenerationState> generationStateMapping = new ConcurrentHashMap<>();
@@ -62,6 +83,11 @@ public class TableGenerator implements IdentityGenerator<Serializable>, Initiali
 	 * The default {@link #SEGMENT_LENGTH_PARAM} value
 	 */
 	public static final int DEF_SEGMENT_LENGTH = 255;
+
+	/**
+	 * how long a block of ids should last when the allocation size adapts to the rate ids are generated at.
+	 */
+	private static final long TARGET_BLOCK_MILLIS = 1000;
 	
 	private String tableName;
 
@@ -75,6 +101,10 @@ public class TableGenerator implements IdentityGenerator<Serializable>, Initiali
 
 	private int incrementSize;
 
+	private int minIncrementSize;
+
+	private int maxIncrementSize;
+
 	private DataSource dataSource;
 
 	private Dialect dialect;
@@ -110,6 +140,12 @@ public class TableGenerator implements IdentityGenerator<Serializable>, Initiali
 				this.initialValue = tableGeneratorConfig.getInitialValue();
 			}
 			this.incrementSize = tableGeneratorConfig.getAllocationSize();
+			if (null != tableGeneratorConfig.getMinAllocationSize()) {
+				this.minIncrementSize = tableGeneratorConfig.getMinAllocationSize();
+			}
+			if (null != tableGeneratorConfig.getMaxAllocationSize()) {
+				this.maxIncrementSize = tableGeneratorConfig.getMaxAllocationSize();
+			}
 		}
 	}
 
@@ -157,44 +193,41 @@ public class TableGenerator implements IdentityGenerator<Serializable>, Initiali
 			incrementSize = tableGeneratorConfig.allocationSize();
 		}
 
+		String table = tableName;
+		String segmentColumn = segmentColumnName;
+		String valueColumn = valueColumnName;
+		int initial = initialValue;
+		int increment = incrementSize;
+		// the allocation size of the segment may adapt, within bounds that include its own size.
+		int minIncrement = minIncrementSize > 0 ? Math.min(minIncrementSize, increment) : increment;
+		int maxIncrement = Math.max(maxIncrementSize, increment);
 		// 如果不存在 GenerateState 则创建一个
-		if (!generationStateMapping.containsKey(segment)) {
-			generationStateMapping.putIfAbsent(segment, new GenerationState());
-		}
-
-		GenerationState state = generationStateMapping.get(segment);
-
-		synchronized (state) {
-			if (state.value.get() < state.upperLimitValue.get()) {
-				return state.value.getAndIncrement();
-			} else {
-				int rows = 0;
-				do {
-					Long value = doQueryValue(tableName, valueColumnName, segmentColumnName, segment);
-					if (null == value) {
-						try {
-							template.update(buildInsertQuery(tableName, valueColumnName, segmentColumnName), segment, initialValue);
-							value = new Long(initialValue);
-						} catch (DuplicateKeyException e) {
-							// ignore
-						}
-					}
+		GenerationState state = generationStateMapping.computeIfAbsent(segment, key -> new GenerationState(table,
+				segmentColumn, valueColumn, key, initial, increment, minIncrement, maxIncrement));
+		return state.next();
+	}
 
-					rows = template.update(buildUpdateQuery(tableName, valueColumnName, segmentColumnName), value + incrementSize,
-							value, segment);
+	/**
+	 * @return segments ids were generated for.
+	 */
+	public Set<String> getSegments() {
+		return Collections.unmodifiableSet(generationStateMapping.keySet());
+	}
 
-					if (rows > 0) {
-						state.value = new AtomicLong(value);
-						state.upperLimitValue = new AtomicLong(value + incrementSize);
-						return state.value.getAndIncrement();
-					} else {
-						continue;
-					}
-				} while (rows == 0);
-			}
-			throw new IdentityGenerationException("Generate identity fail.");
-		}
+	/**
+	 * @return number of ids in the last block allocated for {@code segment}, 0 if none was.
+	 */
+	public int getBlockSize(String segment) {
+		GenerationState state = generationStateMapping.get(segment);
+		return null == state ? 0 : state.getBlockSize();
+	}
 
+	/**
+	 * @return number of blocks allocated in the table for {@code segment}.
+	 */
+	public long getRefillCount(String segment) {
+		GenerationState state = generationStateMapping.get(segment);
+		return null == state ? 0 : state.getRefillCount();
 	}
 
 	private Long doQueryValue(String tableName, String valueColumnName, String segmentColumnName, String segment) {
@@ -227,11 +260,164 @@ public class TableGenerator implements IdentityGenerator<Serializable>, Initiali
 				+ dialect.getTypeName(Types.BIGINT) + ", primary key ( " + segmentColumnName + " ) )";
 	}
 
-	private static class GenerationState {
-		// the current generator value
-		private AtomicLong value = new AtomicLong();
-		// the value at which we'll hit the db again
-		private AtomicLong upperLimitValue = new AtomicLong();
+	/**
+	 * the ids of one segment, handed out from a block allocated in the table. The next block is allocated in the
+	 * background while the last quarter of the current one is handed out.
+	 * <p>
+	 * When the bounds of the increment differ, each block is sized to last about {@link #TARGET_BLOCK_MILLIS} at the
+	 * rate the previous one was used, growing or shrinking at most twofold at a time.
+	 */
+	private class GenerationState {
+
+		private final String tableName;
+
+		private final String segmentColumnName;
+
+		private final String valueColumnName;
+
+		private final String segment;
+
+		private final int initialValue;
+
+		private final int minIncrementSize;
+
+		private final int maxIncrementSize;
+
+		private final Object sizeLock = new Object();
+
+		// guarded by sizeLock
+		private int nextIncrementSize;
+
+		// guarded by sizeLock
+		private long lastRefillNanos;
+
+		private volatile int blockSize;
+
+		private final AtomicLong refills = new AtomicLong();
+
+		private volatile IdentityBlock current = IdentityBlock.EMPTY;
+
+		private final AtomicReference<CompletableFuture<IdentityBlock>> prefetched = new AtomicReference<>();
+
+		GenerationState(String tableName, String segmentColumnName, String valueColumnName, String segment,
+				int initialValue, int incrementSize, int minIncrementSize, int maxIncrementSize) {
+			this.tableName = tableName;
+			this.segmentColumnName = segmentColumnName;
+			this.valueColumnName = valueColumnName;
+			this.segment = segment;
+			this.initialValue = initialValue;
+			this.nextIncrementSize = incrementSize;
+			this.minIncrementSize = minIncrementSize;
+			this.maxIncrementSize = maxIncrementSize;
+		}
+
+		int getBlockSize() {
+			return blockSize;
+		}
+
+		long getRefillCount() {
+			return refills.get();
+		}
+
+		Long next() {
+			for (;;) {
+				IdentityBlock block = current;
+				long value = block.next.getAndIncrement();
+				if (value < block.limit) {
+					// every value is handed out once, so one thread starts the prefetch.
+					if (value == block.prefetchAt) {
+						prefetch();
+					}
+					return value;
+				}
+				// only threads reaching the end of a block wait here.
+				synchronized (this) {
+					if (current == block) {
+						current = takeNextBlock();
+					}
+				}
+			}
+		}
+
+		private void prefetch() {
+			CompletableFuture<IdentityBlock> future = new CompletableFuture<>();
+			if (!prefetched.compareAndSet(null, future)) {
+				return;
+			}
+			try {
+				PREFETCH_EXECUTOR.execute(() -> {
+					try {
+						future.complete(allocate());
+					}
+					catch (RuntimeException | Error e) {
+						future.completeExceptionally(e);
+					}
+				});
+			}
+			catch (RejectedExecutionException e) {
+				prefetched.compareAndSet(future, null);
+			}
+		}
+
+		private IdentityBlock takeNextBlock() {
+			CompletableFuture<IdentityBlock> future = prefetched.getAndSet(null);
+			if (null != future) {
+				try {
+					return future.join();
+				}
+				catch (CompletionException e) {
+					logger.debug("Prefetch of segment " + segment + " failed, allocate again.", e.getCause());
+				}
+			}
+			return allocate();
+		}
+
+		private IdentityBlock allocate() {
+			int incrementSize;
+			synchronized (sizeLock) {
+				incrementSize = nextIncrementSize;
+			}
+			int rows = 0;
+			do {
+				Long value = doQueryValue(tableName, valueColumnName, segmentColumnName, segment);
+				if (null == value) {
+					try {
+						template.update(buildInsertQuery(tableName, valueColumnName, segmentColumnName), segment,
+								initialValue);
+						value = new Long(initialValue);
+					}
+					catch (DuplicateKeyException e) {
+						// ignore
+						continue;
+					}
+				}
+
+				rows = template.update(buildUpdateQuery(tableName, valueColumnName, segmentColumnName),
+						value + incrementSize, value, segment);
+
+				if (rows > 0) {
+					refilled(incrementSize);
+					return new IdentityBlock(value, value + incrementSize);
+				}
+			} while (rows == 0);
+			throw new IdentityGenerationException("Generate identity fail.");
+		}
+
+		private void refilled(int size) {
+			long now = System.nanoTime();
+			synchronized (sizeLock) {
+				if (refills.get() > 0 && minIncrementSize < maxIncrementSize) {
+					// the previous block was used from its refill until now.
+					long elapsed = Math.max(1, TimeUnit.NANOSECONDS.toMillis(now - lastRefillNanos));
+					long wanted = (long) blockSize * TARGET_BLOCK_MILLIS / elapsed;
+					wanted = Math.max(blockSize / 2, Math.min(wanted, (long) blockSize * 2));
+					nextIncrementSize = (int) Math.max(minIncrementSize, Math.min(maxIncrementSize, wanted));
+				}
+				lastRefillNanos = now;
+				blockSize = size;
+				refills.incrementAndGet();
+			}
+		}
 	}
 
 	@Override
@@ -44,6 +44,10 @@ public class TableGeneratorConfig {
 
 	private Integer allocationSize;
 
+	private Integer minAllocationSize;
+
+	private Integer maxAllocationSize;
+
 	public String getTable() {
 		return table;
 	}
@@ -99,4 +103,20 @@ public class TableGeneratorConfig {
 	public void setAllocationSize(Integer allocationSize) {
 		this.allocationSize = allocationSize;
 	}
+
+	public Integer getMinAllocationSize() {
+		return minAllocationSize;
+	}
+
+	public void setMinAllocationSize(Integer minAllocationSize) {
+		this.minAllocationSize = minAllocationSize;
+	}
+
+	public Integer getMaxAllocationSize() {
+		return maxAllocationSize;
+	}
+
+	public void setMaxAllocationSize(Integer maxAllocationSize) {
+		this.maxAllocationSize = maxAllocationSize;
+	}
 }
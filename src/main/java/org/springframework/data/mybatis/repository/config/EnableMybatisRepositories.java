@@ -152,6 +152,18 @@ public @interface EnableMybatisRepositories {
 	 */
 	boolean enableDefaultTransactions() default true;
 
+	/**
+	 * Configures how many statements {@code insertAll}, {@code insertInBatch} and {@code saveAll} send to the database
+	 * in one JDBC batch. Defaults to {@literal 1000}.
+	 */
+	int batchFlushSize() default 1000;
+
+	/**
+	 * Configures whether the statements of all entities are generated in parallel on a fork-join pool before any
+	 * repository is created, instead of one repository after another. Defaults to {@literal false}.
+	 */
+	boolean parallelBootstrap() default false;
+
 	/**
 	 * Configures build-in table generator.
 	 */
@@ -213,5 +225,51 @@ public @interface EnableMybatisRepositories {
 		 * (Optional) The amount to increment by when allocating id numbers from the generator.
 		 */
 		int allocationSize() default DEFAULT_ALLOCATION_SIZE;
+
+		/**
+		 * (Optional) The least amount to increment by, when allocating more often than once a second let the amount grow
+		 * from {@link #allocationSize()} up to {@link #maxAllocationSize()}, less often let it shrink down to this.
+		 * <p/>
+		 * Defaults to {@link #allocationSize()}.
+		 */
+		int minAllocationSize() default 0;
+
+		/**
+		 * (Optional) The largest amount to increment by, see {@link #minAllocationSize()}.
+		 * <p/>
+		 * Defaults to {@link #allocationSize()}, the amount is then fixed unless {@link #minAllocationSize()} is less.
+		 */
+		int maxAllocationSize() default 0;
+	}
+
+	/**
+	 * Configures build-in snowflake generator, used by {@code @GeneratedValue(generator = "snowflake")}.
+	 */
+	SnowflakeGeneratorConfig snowflakeGeneratorConfig() default @SnowflakeGeneratorConfig;
+
+	public static @interface SnowflakeGeneratorConfig {
+
+		/**
+		 * (Optional) Id of the node among those of its datacenter, may be a {@code ${...}} placeholder resolved against
+		 * the environment, so that nodes running the same code get ids of their own. Nodes left without worker and
+		 * datacenter id all use 0 and generate the same ids, a warning is logged when such a node generates one.
+		 */
+		String workerId() default "";
+
+		/**
+		 * (Optional) Id of the datacenter, may be a {@code ${...}} placeholder like {@link #workerId()}.
+		 */
+		String datacenterId() default "";
+
+		/**
+		 * (Optional) Bits of an id holding the worker id.
+		 */
+		int workerIdBits() default 5;
+
+		/**
+		 * (Optional) Bits of an id holding the datacenter id, the bits left by both ids number the ids of a
+		 * millisecond.
+		 */
+		int datacenterIdBits() default 5;
 	}
 }
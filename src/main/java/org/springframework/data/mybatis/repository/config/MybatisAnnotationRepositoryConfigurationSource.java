@@ -25,6 +25,7 @@ import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.data.mybatis.id.support.SnowflakeGeneratorConfig;
 import org.springframework.data.mybatis.id.support.TableGeneratorConfig;
 import org.springframework.data.repository.config.AnnotationRepositoryConfigurationSource;
 
@@ -33,6 +34,8 @@ import org.springframework.data.repository.config.AnnotationRepositoryConfigurat
  */
 public class MybatisAnnotationRepositoryConfigurationSource extends AnnotationRepositoryConfigurationSource {
 
+	private final Environment environment;
+
 	/**
 	 * Creates a new {@link AnnotationRepositoryConfigurationSource} from the given {@link AnnotationMetadata} and
 	 * annotation.
@@ -45,6 +48,7 @@ public class MybatisAnnotationRepositoryConfigurationSource extends AnnotationRe
 			Class<? extends Annotation> annotation, ResourceLoader resourceLoader, Environment environment,
 			BeanDefinitionRegistry registry) {
 		super(metadata, annotation, resourceLoader, environment, registry);
+		this.environment = environment;
 	}
 
 	public String[] getMapperLocations() {
@@ -57,6 +61,8 @@ public class MybatisAnnotationRepositoryConfigurationSource extends AnnotationRe
 		AnnotationAttributes defaultTableGenerator = (AnnotationAttributes) attributes.get("tableGeneratorConfig");
 		TableGeneratorConfig config = new TableGeneratorConfig();
 		config.setAllocationSize((int) defaultTableGenerator.get("allocationSize"));
+		config.setMinAllocationSize((int) defaultTableGenerator.get("minAllocationSize"));
+		config.setMaxAllocationSize((int) defaultTableGenerator.get("maxAllocationSize"));
 		config.setCatalog((String) defaultTableGenerator.get("catalog"));
 		config.setInitialValue((int) defaultTableGenerator.get("initialValue"));
 		config.setPkColumnName((String) defaultTableGenerator.get("pkColumnName"));
@@ -65,4 +71,20 @@ public class MybatisAnnotationRepositoryConfigurationSource extends AnnotationRe
 		config.setValueColumnName((String) defaultTableGenerator.get("valueColumnName"));
 		return config;
 	}
+
+	public SnowflakeGeneratorConfig getSnowflakeGeneratorConfig() {
+		AnnotationAttributes attributes = getAttributes();
+		AnnotationAttributes snowflakeGenerator = (AnnotationAttributes) attributes.get("snowflakeGeneratorConfig");
+		SnowflakeGeneratorConfig config = new SnowflakeGeneratorConfig();
+		config.setWorkerId(resolveInteger(snowflakeGenerator.getString("workerId")));
+		config.setDatacenterId(resolveInteger(snowflakeGenerator.getString("datacenterId")));
+		config.setWorkerIdBits((int) snowflakeGenerator.get("workerIdBits"));
+		config.setDatacenterIdBits((int) snowflakeGenerator.get("datacenterIdBits"));
+		return config;
+	}
+
+	private Integer resolveInteger(String value) {
+		String resolved = environment.resolveRequiredPlaceholders(value).trim();
+		return resolved.isEmpty() ? null : Integer.valueOf(resolved);
+	}
 }
@@ -0,0 +1,108 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.config;
+
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.mapping.MappingException;
+import org.springframework.data.mybatis.mapping.MybatisMappingContext;
+import org.springframework.data.mybatis.repository.dialect.Dialect;
+import org.springframework.data.mybatis.repository.support.MybatisSimpleRepositoryMapperGenerator;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * generate the simple repository statements of all entities in parallel before the repositories are created.
+ * <p>
+ * Repositories created afterwards find their statements already registered and skip the generation.
+ *
+ * @author Jarvis Song
+ */
+public class MybatisEntityMappersRegister implements InitializingBean {
+
+	private transient static final Logger logger = LoggerFactory.getLogger(MybatisEntityMappersRegister.class);
+
+	private SqlSessionFactory sqlSessionFactory;
+
+	private Dialect dialect;
+
+	private MybatisMappingContext mappingContext;
+
+	private Set<Class<?>> entities;
+
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		Assert.notNull(sqlSessionFactory, "SqlSessionFactory must not be null!");
+		Assert.notNull(dialect, "Dialect must not be null!");
+		Assert.notNull(mappingContext, "MappingContext must not be null!");
+		if (CollectionUtils.isEmpty(entities)) {
+			return;
+		}
+
+		final Configuration configuration = sqlSessionFactory.getConfiguration();
+		long start = System.currentTimeMillis();
+		ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, entities.size())));
+		try {
+			pool.submit(() -> entities.parallelStream().forEach(domainClass -> new MybatisSimpleRepositoryMapperGenerator(
+					configuration, dialect, mappingContext, domainClass).generate())).get();
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new MappingException("parallel mapper generation failed.", e.getCause());
+		}
+		finally {
+			pool.shutdown();
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("generated mappers of " + entities.size() + " entities in "
+					+ (System.currentTimeMillis() - start) + "ms.");
+		}
+	}
+
+	public void setSqlSessionFactory(SqlSessionFactory sqlSessionFactory) {
+		this.sqlSessionFactory = sqlSessionFactory;
+	}
+
+	public void setDialect(Dialect dialect) {
+		this.dialect = dialect;
+	}
+
+	public void setMappingContext(MybatisMappingContext mappingContext) {
+		this.mappingContext = mappingContext;
+	}
+
+	public void setEntities(Set<Class<?>> entities) {
+		this.entities = entities;
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+}
@@ -64,12 +64,18 @@ public class MybatisRepositoryConfigExtension extends RepositoryConfigurationExt
 
 	private static final String ENABLE_DEFAULT_TRANSACTIONS_ATTRIBUTE = "enableDefaultTransactions";
 
+	private static final String BATCH_FLUSH_SIZE_ATTRIBUTE = "batchFlushSize";
+
+	private static final String PARALLEL_BOOTSTRAP_ATTRIBUTE = "parallelBootstrap";
+
 	private static final String SQL_SESSION_TEMPLATE_BEAN_NAME_SUFFIX = "_Template";
 
 	private static final String DIALECT_BEAN_NAME_SUFFIX = "_Dialect";
 	
 	private static final String IDENTITY_GENERATOR_FACTORY_BEAN_NAME_SUFFIX = "_IdentityGeneratorFactory";
 
+	private static final String ENTITY_MAPPERS_BEAN_NAME_SUFFIX = "_EntityMappers";
+
 	public static final String MAPPING_CONTEXT_SUFFIX = "_MappingContext";
 
 	private final ResourceLoader resourceLoader;
@@ -168,10 +174,24 @@ public class MybatisRepositoryConfigExtension extends RepositoryConfigurationExt
 		identityGeneratorFactorybuilder.addConstructorArgReference(sqlSessionFactoryRef.concat(DIALECT_BEAN_NAME_SUFFIX));
     TableGeneratorConfig tableGeneratorConfig  = ((MybatisAnnotationRepositoryConfigurationSource) config).getTableGeneratorConfig();
     identityGeneratorFactorybuilder.addConstructorArgValue(tableGeneratorConfig);
+		identityGeneratorFactorybuilder.addConstructorArgValue(
+				((MybatisAnnotationRepositoryConfigurationSource) config).getSnowflakeGeneratorConfig());
 		registerIfNotAlreadyRegistered(identityGeneratorFactorybuilder.getBeanDefinition(), registry,
 				sqlSessionFactoryRef.concat(IDENTITY_GENERATOR_FACTORY_BEAN_NAME_SUFFIX), source);
 
 		
+		// generate entity mappers ahead of the repositories.
+		if (isParallelBootstrap(config)) {
+			BeanDefinitionBuilder entityMappersBuilder = BeanDefinitionBuilder.rootBeanDefinition(
+					MybatisEntityMappersRegister.class);
+			entityMappersBuilder.addPropertyReference("sqlSessionFactory", sqlSessionFactoryRef);
+			entityMappersBuilder.addPropertyReference("dialect", sqlSessionFactoryRef.concat(DIALECT_BEAN_NAME_SUFFIX));
+			entityMappersBuilder.addPropertyReference("mappingContext", sqlSessionFactoryRef.concat(MAPPING_CONTEXT_SUFFIX));
+			entityMappersBuilder.addPropertyValue("entities", initialEntitySet);
+			registerIfNotAlreadyRegistered(entityMappersBuilder.getBeanDefinition(), registry,
+					sqlSessionFactoryRef.concat(ENTITY_MAPPERS_BEAN_NAME_SUFFIX), source);
+		}
+
 		// create mybatis mapper register
 		if (config instanceof MybatisAnnotationRepositoryConfigurationSource) {
 			String[] mapperLocations = ((MybatisAnnotationRepositoryConfigurationSource) config).getMapperLocations();
@@ -205,6 +225,18 @@ public class MybatisRepositoryConfigExtension extends RepositoryConfigurationExt
 		AnnotationAttributes attributes = config.getAttributes();
 		builder.addPropertyValue(ENABLE_DEFAULT_TRANSACTIONS_ATTRIBUTE,
 				attributes.getBoolean(ENABLE_DEFAULT_TRANSACTIONS_ATTRIBUTE));
+		builder.addPropertyValue(BATCH_FLUSH_SIZE_ATTRIBUTE, attributes.<Integer> getNumber(BATCH_FLUSH_SIZE_ATTRIBUTE));
+		if (isParallelBootstrap(config)) {
+			String sqlSessionFactoryRef = config.getAttribute("sqlSessionFactoryRef").orElse(
+					DEFAULT_SQL_SESSION_FACTORY_BEAN_NAME);
+			builder.addDependsOn(sqlSessionFactoryRef.concat(ENTITY_MAPPERS_BEAN_NAME_SUFFIX));
+		}
+	}
+
+	private boolean isParallelBootstrap(RepositoryConfigurationSource config) {
+		return config instanceof AnnotationRepositoryConfigurationSource
+				&& ((AnnotationRepositoryConfigurationSource) config).getAttributes().getBoolean(
+						PARALLEL_BOOTSTRAP_ATTRIBUTE);
 	}
 
 	@Override
@@ -19,6 +19,7 @@
 package org.springframework.data.mybatis.repository.dialect;
 
 import java.sql.Types;
+import java.util.List;
 
 import org.springframework.data.mybatis.repository.dialect.pagination.AbstractLimitHandler;
 import org.springframework.data.mybatis.repository.dialect.pagination.LimitHandler;
@@ -56,7 +57,14 @@ public class DB2Dialect extends Dialect {
 		}
 
 		@Override
-		public String processSql(String sql, int pageSize, long offset, long offsetEnd) {
+		public boolean supportsWindowCount() {
+			return true;
+		}
+
+		@Override
+		public String processSql(String sql, List<String> parameters) {
+			parameters.add("offsetEnd");
+			parameters.add("offset");
 			final StringBuilder pagingSelect = new StringBuilder();
 			int cetIndex = SQLUtils.matchWithCET(sql);
 			if (cetIndex > 0) {
@@ -67,12 +75,12 @@ public class DB2Dialect extends Dialect {
 				pagingSelect.append(
 						"select * from ( select inner2_.*, rownumber() over(order by order of inner2_) as rownumber_ from ( ");
 				pagingSelect.append(sqlPart);
-				pagingSelect.append(" ) as inner2_ )  where rownumber_ <= " + offsetEnd + "   and rownumber_ > " + offset);
+				pagingSelect.append(" ) as inner2_ )  where rownumber_ <= ? and rownumber_ > ?");
 			} else {
 				pagingSelect.append(
 						"select * from ( select inner2_.*, rownumber() over(order by order of inner2_) as rownumber_ from ( ");
 				pagingSelect.append(sql);
-				pagingSelect.append(" ) as inner2_ )  where rownumber_ <= " + offsetEnd + "   and rownumber_ > " + offset);
+				pagingSelect.append(" ) as inner2_ )  where rownumber_ <= ? and rownumber_ > ?");
 			}
 			return pagingSelect.toString();
 		}
@@ -122,4 +130,15 @@ public class DB2Dialect extends Dialect {
 	public boolean supportsDeleteAlias() {
 		return false;
 	}
+
+	@Override
+	public String getSequenceNextValString(String sequenceName) {
+		return "values nextval for " + sequenceName;
+	}
+
+	@Override
+	public String getSequenceIncrementString(boolean qualified) {
+		return "select increment from syscat.sequences where seqname = ? and seqschema = "
+				+ (qualified ? "?" : "current schema");
+	}
 }
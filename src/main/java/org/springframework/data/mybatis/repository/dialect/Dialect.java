@@ -103,6 +103,63 @@ public class Dialect {
 		return false;
 	}
 
+	/**
+	 * Return the limit on the number of bind values in an {@code IN} list, statements with more values must be split.
+	 *
+	 * @return the limit, 0 means no limit.
+	 */
+	public int getInExpressionCountLimit() {
+		return 0;
+	}
+
+	/**
+	 * Return the JDBC fetch size of queries whose rows are streamed through a cursor.
+	 *
+	 * @return the fetch size, {@literal null} leaves the driver default.
+	 */
+	public Integer getStreamFetchSize() {
+		return 1000;
+	}
+
+	/**
+	 * Return a query reading the row count the database keeps in its statistics for {@code tableName}, which is much
+	 * cheaper than counting but may be outdated.
+	 *
+	 * @param tableName the unquoted table name.
+	 * @return the query, {@literal null} if the database has no estimate.
+	 */
+	public String getEstimatedCountSql(String tableName) {
+		return null;
+	}
+
+	/**
+	 * Return a query reading the next value of the sequence {@code sequenceName}.
+	 *
+	 * @return the query, {@literal null} if the database has no sequences.
+	 */
+	public String getSequenceNextValString(String sequenceName) {
+		return null;
+	}
+
+	/**
+	 * Return a query reading from the catalog how much a sequence increments by. Its first parameter is the upper case
+	 * name of the sequence without schema, the second one the upper case schema if {@code qualified}. Otherwise the
+	 * sequence is looked up in the current schema.
+	 *
+	 * @param qualified whether the sequence name is qualified by a schema.
+	 * @return the query, {@literal null} if the catalog can not tell.
+	 */
+	public String getSequenceIncrementString(boolean qualified) {
+		return null;
+	}
+
+	/**
+	 * Return the statement creating the sequence {@code sequenceName}, used when the catalog does not know it.
+	 */
+	public String getCreateSequenceString(String sequenceName, long initialValue, int incrementSize) {
+		return "create sequence " + sequenceName + " start with " + initialValue + " increment by " + incrementSize;
+	}
+
 	protected void registerColumnType(int code, String name) {
 		typeNames.put(code, name);
 	}
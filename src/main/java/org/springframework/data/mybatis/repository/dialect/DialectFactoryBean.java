@@ -27,6 +27,7 @@ import javax.sql.DataSource;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.mybatis.repository.support.WindowCountPlugin;
 import org.springframework.util.Assert;
 
 /**
@@ -76,6 +77,11 @@ public class DialectFactoryBean implements FactoryBean<Dialect>, InitializingBea
 				conn.close();
 			}
 		}
+
+		// installed once, before any statement of the factory runs.
+		if (null != dialect.getLimitHandler() && dialect.getLimitHandler().supportsWindowCount()) {
+			sqlSessionFactory.getConfiguration().addInterceptor(new WindowCountPlugin());
+		}
 	}
 
 	private Dialect getDialect(DatabaseMetaData metaData) throws SQLException {
@@ -19,6 +19,7 @@
 package org.springframework.data.mybatis.repository.dialect;
 
 import java.sql.Types;
+import java.util.List;
 
 import org.springframework.data.mybatis.repository.dialect.pagination.AbstractLimitHandler;
 import org.springframework.data.mybatis.repository.dialect.pagination.LimitHandler;
@@ -76,8 +77,10 @@ public class H2Dialect extends Dialect {
 		}
 
 		@Override
-		public String processSql(String sql, int pageSize, long offset, long offsetEnd) {
-			return sql + " limit " + pageSize + " offset " + offset;
+		public String processSql(String sql, List<String> parameters) {
+			parameters.add("pageSize");
+			parameters.add("offset");
+			return sql + " limit ? offset ?";
 		}
 
 		private String processSql(String sql) {
@@ -90,4 +93,15 @@ public class H2Dialect extends Dialect {
 	public LimitHandler getLimitHandler() {
 		return LIMIT_HANDLER;
 	}
+
+	@Override
+	public String getSequenceNextValString(String sequenceName) {
+		return "select next value for " + sequenceName;
+	}
+
+	@Override
+	public String getSequenceIncrementString(boolean qualified) {
+		return "select increment from information_schema.sequences where upper(sequence_name) = ?"
+				+ (qualified ? " and sequence_schema = ?" : " and sequence_schema = schema()");
+	}
 }
@@ -19,6 +19,7 @@
 package org.springframework.data.mybatis.repository.dialect;
 
 import java.sql.Types;
+import java.util.List;
 
 import org.springframework.data.mybatis.repository.dialect.pagination.AbstractLimitHandler;
 import org.springframework.data.mybatis.repository.dialect.pagination.LimitHandler;
@@ -84,8 +85,10 @@ public class MySQLDialect extends Dialect {
 		};
 
 		@Override
-		public String processSql(String sql, int pageSize, long offset, long offsetEnd) {
-			return sql + " limit " + pageSize + " offset " + offset;
+		public String processSql(String sql, List<String> parameters) {
+			parameters.add("pageSize");
+			parameters.add("offset");
+			return sql + " limit ? offset ?";
 		}
 	};
 
@@ -108,4 +111,17 @@ public class MySQLDialect extends Dialect {
 	public boolean supportsDeleteAlias() {
 		return true;
 	}
+	@Override
+	public Integer getStreamFetchSize() {
+		// Connector/J only streams rows one by one with this fetch size, otherwise it reads the whole result.
+		return Integer.MIN_VALUE;
+	}
+
+	@Override
+	public String getEstimatedCountSql(String tableName) {
+		// exact for MyISAM, an estimate for InnoDB.
+		return "select table_rows from information_schema.tables where table_schema = database() and table_name = '"
+				+ tableName + "'";
+	}
+
 }
@@ -18,6 +18,8 @@
 
 package org.springframework.data.mybatis.repository.dialect;
 
+import java.util.List;
+
 import org.springframework.data.mybatis.repository.dialect.pagination.AbstractLimitHandler;
 import org.springframework.data.mybatis.repository.dialect.pagination.LimitHandler;
 
@@ -40,17 +42,24 @@ public class OracleDialect extends Dialect {
 			return true;
 		}
 
+		@Override
+		public boolean supportsWindowCount() {
+			return true;
+		}
+
 		@Override
 		public String processSql(String columns, String from, String condition, String sorts) {
 			return processSql("select " + columns + from + condition + sorts);
 		}
 
 		@Override
-		public String processSql(String sql, int pageSize, long offset, long offsetEnd) {
+		public String processSql(String sql, List<String> parameters) {
+			parameters.add("offsetEnd");
+			parameters.add("offset");
 			final StringBuilder pagingSelect = new StringBuilder();
 			pagingSelect.append("select * from ( select row_.*, rownum rownum_ from ( ");
 			pagingSelect.append(sql);
-			pagingSelect.append(" ) row_ where rownum  <=" + offsetEnd + ") where rownum_ > " + offset);
+			pagingSelect.append(" ) row_ where rownum <= ?) where rownum_ > ?");
 			return pagingSelect.toString();
 		}
 
@@ -82,4 +91,21 @@ public class OracleDialect extends Dialect {
 	public boolean supportsDeleteAlias() {
 		return false;
 	}
+
+	@Override
+	public int getInExpressionCountLimit() {
+		// ORA-01795: maximum number of expressions in a list is 1000
+		return 1000;
+	}
+
+	@Override
+	public String getSequenceNextValString(String sequenceName) {
+		return "select " + sequenceName + ".nextval from dual";
+	}
+
+	@Override
+	public String getSequenceIncrementString(boolean qualified) {
+		return qualified ? "select increment_by from all_sequences where sequence_name = ? and sequence_owner = ?"
+				: "select increment_by from user_sequences where sequence_name = ?";
+	}
 }
@@ -18,6 +18,8 @@
 
 package org.springframework.data.mybatis.repository.dialect;
 
+import java.util.List;
+
 import org.springframework.data.mybatis.repository.dialect.pagination.AbstractLimitHandler;
 import org.springframework.data.mybatis.repository.dialect.pagination.LimitHandler;
 
@@ -40,6 +42,11 @@ public class PostgreSQLDialect extends Dialect {
 			return true;
 		}
 
+		@Override
+		public boolean supportsWindowCount() {
+			return true;
+		}
+
 		@Override
 		public String processSql(String columns, String from, String condition, String sorts) {
 			String sql = "select " + columns + from + condition + sorts;
@@ -47,8 +54,10 @@ public class PostgreSQLDialect extends Dialect {
 		}
 
 		@Override
-		public String processSql(String sql, int pageSize, long offset, long offsetEnd) {
-			return sql + " limit " + pageSize + "offset " + offset;
+		public String processSql(String sql, List<String> parameters) {
+			parameters.add("pageSize");
+			parameters.add("offset");
+			return sql + " limit ? offset ?";
 		}
 
 		private String processSql(String sql) {
@@ -80,4 +89,22 @@ public class PostgreSQLDialect extends Dialect {
 	public boolean supportsDeleteAlias() {
 		return false;
 	}
+
+	@Override
+	public String getSequenceNextValString(String sequenceName) {
+		return "select nextval('" + sequenceName + "')";
+	}
+
+	@Override
+	public String getSequenceIncrementString(boolean qualified) {
+		return "select cast(increment as bigint) from information_schema.sequences where upper(sequence_name) = ?"
+				+ (qualified ? " and upper(sequence_schema) = ?" : " and sequence_schema = current_schema()");
+	}
+
+	@Override
+	public String getEstimatedCountSql(String tableName) {
+		// reltuples is -1 until the table is vacuumed or analyzed for the first time.
+		return "select cast(reltuples as bigint) from pg_class where oid = '" + wrapTableName(tableName)
+				+ "'::regclass";
+	}
 }
@@ -18,6 +18,8 @@
 
 package org.springframework.data.mybatis.repository.dialect;
 
+import java.util.List;
+
 import org.springframework.data.mybatis.repository.dialect.pagination.AbstractLimitHandler;
 import org.springframework.data.mybatis.repository.dialect.pagination.LimitHandler;
 
@@ -54,6 +56,11 @@ public class SQLServerDialect extends Dialect {
 			return true;
 		}
 
+		@Override
+		public boolean supportsWindowCount() {
+			return true;
+		}
+
 		@Override
 		public String processSql(String columns, String from, String condition, String sorts) {
 			StringBuilder sql = new StringBuilder();
@@ -85,17 +92,18 @@ public class SQLServerDialect extends Dialect {
 		}
 
 		@Override
-		public String processSql(String sql, int pageSize, long offset, long offsetEnd) {
+		public String processSql(String sql, List<String> parameters) {
+			parameters.add("offset");
+			parameters.add("offsetEnd");
 			StringBuilder wrapSql = new StringBuilder();
 
 			wrapSql.append(
-					"WITH query AS (SELECT inner_query.*, ROW_NUMBER() OVER (ORDER BY CURRENT_TIMESTAMP) as __mybatis_row_nr__ FROM ( select ");
+					"WITH query AS (SELECT inner_query.*, ROW_NUMBER() OVER (ORDER BY CURRENT_TIMESTAMP) as __mybatis_row_nr__ FROM ( ");
 			wrapSql.append(sql);
 			wrapSql.append(" ) inner_query ) ");
 			wrapSql.append("select *");
-			wrapSql.append(" from query where __mybatis_row_nr__  > " + offset + " and __mybatis_row_nr__  <= " + offsetEnd);
-			return sql.toString();
-
+			wrapSql.append(" from query where __mybatis_row_nr__ > ? and __mybatis_row_nr__ <= ?");
+			return wrapSql.toString();
 		}
 	};
 
@@ -123,4 +131,22 @@ public class SQLServerDialect extends Dialect {
 	public boolean supportsDeleteAlias() {
 		return true;
 	}
+
+	@Override
+	public int getInExpressionCountLimit() {
+		// a request accepts at most 2100 parameters
+		return 2000;
+	}
+
+	@Override
+	public String getSequenceNextValString(String sequenceName) {
+		// sequences exist since sql server 2012
+		return "select next value for " + sequenceName;
+	}
+
+	@Override
+	public String getSequenceIncrementString(boolean qualified) {
+		return "select cast(increment as bigint) from sys.sequences where upper(name) = ?"
+				+ (qualified ? " and upper(schema_name(schema_id)) = ?" : " and schema_id = schema_id()");
+	}
 }
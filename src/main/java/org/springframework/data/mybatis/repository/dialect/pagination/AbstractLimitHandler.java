@@ -46,4 +46,13 @@ public abstract class AbstractLimitHandler implements LimitHandler {
 	public boolean forceLimitUsage() {
 		return false;
 	}
+
+	public boolean supportsWindowCount() {
+		return false;
+	}
+
+	public String processSqlWithTotal(String columns, String from, String condition, String sorts) {
+		// the window is counted before the rows are limited.
+		return processSql(columns + ", count(*) over () as " + TOTAL_COLUMN, from, condition, sorts);
+	}
 }
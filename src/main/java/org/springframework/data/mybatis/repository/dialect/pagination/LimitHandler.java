@@ -18,16 +18,41 @@
 
 package org.springframework.data.mybatis.repository.dialect.pagination;
 
+import java.util.List;
+
 /**
  * @author Jarvis Song
  */
 public interface LimitHandler {
 
+	/**
+	 * alias of the {@code count(*) over ()} column selected by {@link #processSqlWithTotal}.
+	 */
+	String TOTAL_COLUMN = "mybatis_total_";
+
 	boolean supportsLimit();
 
 	boolean supportsLimitOffset();
 
 	String processSql(String columns, String from, String condition, String sorts);
 
-	String processSql(String sql, int pageSize, long offset, long offsetEnd);
+	/**
+	 * the page query of a native {@code sql}, limited by {@code ?} placeholders following {@code sql}, so every page
+	 * shares the same statement.
+	 *
+	 * @param parameters receives the names of the page values bound to the placeholders in order, {@code pageSize},
+	 *          {@code offset} or {@code offsetEnd}.
+	 */
+	String processSql(String sql, List<String> parameters);
+
+	/**
+	 * whether the database has window functions, so a page query can select the total of all rows as well.
+	 */
+	boolean supportsWindowCount();
+
+	/**
+	 * the page query of {@link #processSql(String, String, String, String)} selecting the total of all rows in every
+	 * row as {@link #TOTAL_COLUMN}.
+	 */
+	String processSqlWithTotal(String columns, String from, String condition, String sorts);
 }
@@ -23,6 +23,8 @@
 
 package org.springframework.data.mybatis.repository.domain;
 
+import org.springframework.util.ObjectUtils;
+
 /**
  * 
  * @author 7cat
@@ -70,4 +72,25 @@ public class ExampleInfo {
 		this.includeNull = includeNull;
 	}
 
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof ExampleInfo)) {
+			return false;
+		}
+		ExampleInfo that = (ExampleInfo) o;
+		return ignoreCase == that.ignoreCase && includeNull == that.includeNull
+				&& ObjectUtils.nullSafeEquals(value, that.value) && ObjectUtils.nullSafeEquals(matcher, that.matcher);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = ObjectUtils.nullSafeHashCode(value);
+		result = 31 * result + ObjectUtils.nullSafeHashCode(matcher);
+		result = 31 * result + (ignoreCase ? 1 : 0);
+		return 31 * result + (includeNull ? 1 : 0);
+	}
+
 }
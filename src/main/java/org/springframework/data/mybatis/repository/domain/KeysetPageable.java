@@ -0,0 +1,165 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.domain;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.util.Assert;
+
+/**
+ * request of one slice in keyset (seek) pagination.
+ * <p>
+ * Instead of skipping {@code offset} rows, the next slice starts right after the values of the sort properties of the
+ * last row already read, so the database can seek there through an index. The sort must be unique, repositories append
+ * the id when it is missing. Sort properties must not be {@literal null}.
+ *
+ * @author Jarvis Song
+ */
+public class KeysetPageable implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int size;
+
+	private final Sort sort;
+
+	private final Map<String, Object> after;
+
+	/**
+	 * @param size rows of a slice.
+	 * @param sort must not be unsorted.
+	 * @param after sort property values of the last row read, empty for the first slice.
+	 */
+	public KeysetPageable(int size, Sort sort, Map<String, Object> after) {
+		Assert.isTrue(size > 0, "size must be greater than 0!");
+		Assert.notNull(sort, "sort must not be null!");
+		Assert.isTrue(sort.isSorted(), "keyset pagination needs a sort!");
+		this.size = size;
+		this.sort = sort;
+		this.after = null == after ? Collections.<String, Object> emptyMap()
+				: Collections.unmodifiableMap(new LinkedHashMap<>(after));
+		if (!this.after.isEmpty()) {
+			for (Order order : sort) {
+				Assert.isTrue(null != this.after.get(order.getProperty()),
+						"missing keyset value of sort property " + order.getProperty());
+			}
+		}
+	}
+
+	public static KeysetPageable first(int size, Sort sort) {
+		return new KeysetPageable(size, sort, null);
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public Sort getSort() {
+		return sort;
+	}
+
+	public Map<String, Object> getAfter() {
+		return after;
+	}
+
+	public boolean isFirst() {
+		return after.isEmpty();
+	}
+
+	/**
+	 * @return this request with {@code property} appended to the sort, unless the sort already contains it.
+	 */
+	public KeysetPageable withTieBreaker(String property) {
+		if (null == property || null != sort.getOrderFor(property)) {
+			return this;
+		}
+		if (!isFirst()) {
+			// a token issued without the tie breaker can not continue with it.
+			return this;
+		}
+		return new KeysetPageable(size, sort.and(Sort.by(property)), after);
+	}
+
+	/**
+	 * conditions selecting the rows after the keyset, expanded to
+	 * {@code (a > ?) or (a = ? and b > ?) or (a = ? and b = ? and c > ?)} which every database can run, unlike row
+	 * value comparisons with mixed directions.
+	 *
+	 * @return one list of and-ed conditions per or-ed clause, empty for the first slice.
+	 */
+	public List<List<Condition>> getConditions() {
+		if (isFirst()) {
+			return Collections.emptyList();
+		}
+		List<Order> orders = new ArrayList<>();
+		for (Order order : sort) {
+			orders.add(order);
+		}
+		List<List<Condition>> clauses = new ArrayList<>(orders.size());
+		for (int i = 0; i < orders.size(); i++) {
+			List<Condition> clause = new ArrayList<>(i + 1);
+			for (int j = 0; j < i; j++) {
+				String property = orders.get(j).getProperty();
+				clause.add(new Condition(property, "=", after.get(property)));
+			}
+			Order order = orders.get(i);
+			clause.add(new Condition(order.getProperty(), order.isAscending() ? ">" : "<",
+					after.get(order.getProperty())));
+			clauses.add(clause);
+		}
+		return clauses;
+	}
+
+	/**
+	 * comparison of a sort property with its keyset value.
+	 */
+	public static class Condition {
+
+		private final String property;
+
+		private final String operator;
+
+		private final Object value;
+
+		Condition(String property, String operator, Object value) {
+			this.property = property;
+			this.operator = operator;
+			this.value = value;
+		}
+
+		public String getProperty() {
+			return property;
+		}
+
+		public String getOperator() {
+			return operator;
+		}
+
+		public Object getValue() {
+			return value;
+		}
+	}
+}
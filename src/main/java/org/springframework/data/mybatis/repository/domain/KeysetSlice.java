@@ -0,0 +1,97 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.domain;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.util.DirectFieldAccessFallbackBeanWrapper;
+import org.springframework.util.Assert;
+
+/**
+ * one slice of keyset pagination, {@link #nextPageable()} carries the keyset the next slice continues from.
+ *
+ * @author Jarvis Song
+ */
+public class KeysetSlice<T> implements Iterable<T> {
+
+	private final List<T> content;
+
+	private final KeysetPageable pageable;
+
+	private final boolean hasNext;
+
+	public KeysetSlice(List<T> content, KeysetPageable pageable, boolean hasNext) {
+		Assert.notNull(content, "content must not be null!");
+		Assert.notNull(pageable, "pageable must not be null!");
+		this.content = Collections.unmodifiableList(content);
+		this.pageable = pageable;
+		this.hasNext = hasNext;
+	}
+
+	/**
+	 * @param rows rows read with a limit of {@code pageable.getSize() + 1}, the extra row only tells there is a next
+	 *          slice.
+	 */
+	public static <T> KeysetSlice<T> of(List<T> rows, KeysetPageable pageable) {
+		boolean hasNext = rows.size() > pageable.getSize();
+		return new KeysetSlice<>(hasNext ? rows.subList(0, pageable.getSize()) : rows, pageable, hasNext);
+	}
+
+	public List<T> getContent() {
+		return content;
+	}
+
+	public boolean hasContent() {
+		return !content.isEmpty();
+	}
+
+	public boolean hasNext() {
+		return hasNext;
+	}
+
+	public KeysetPageable getPageable() {
+		return pageable;
+	}
+
+	/**
+	 * @return request of the slice after this one, {@literal null} if this is the last slice.
+	 */
+	public KeysetPageable nextPageable() {
+		if (!hasNext) {
+			return null;
+		}
+		DirectFieldAccessFallbackBeanWrapper last = new DirectFieldAccessFallbackBeanWrapper(
+				content.get(content.size() - 1));
+		Map<String, Object> after = new LinkedHashMap<>();
+		for (Order order : pageable.getSort()) {
+			after.put(order.getProperty(), last.getPropertyValue(order.getProperty()));
+		}
+		return new KeysetPageable(pageable.getSize(), pageable.getSort(), after);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return content.iterator();
+	}
+}
@@ -38,11 +38,14 @@ import org.springframework.data.mybatis.repository.query.MybatisQueryExecution.C
 import org.springframework.data.mybatis.repository.query.MybatisQueryExecution.DeleteExecution;
 import org.springframework.data.mybatis.repository.query.MybatisQueryExecution.ExistsExecution;
 import org.springframework.data.mybatis.repository.query.MybatisQueryExecution.InsertExecution;
+import org.springframework.data.mybatis.repository.query.MybatisQueryExecution.KeysetExecution;
 import org.springframework.data.mybatis.repository.query.MybatisQueryExecution.PagedExecution;
+import org.springframework.data.mybatis.repository.query.MybatisQueryExecution.ResultHandlerExecution;
 import org.springframework.data.mybatis.repository.query.MybatisQueryExecution.SingleEntityExecution;
 import org.springframework.data.mybatis.repository.query.MybatisQueryExecution.SlicedExecution;
 import org.springframework.data.mybatis.repository.query.MybatisQueryExecution.StreamExecution;
 import org.springframework.data.mybatis.repository.query.MybatisQueryExecution.UpdateExecution;
+import org.springframework.data.mybatis.repository.support.PageCounter;
 import org.springframework.data.repository.query.ParametersParameterAccessor;
 import org.springframework.data.repository.query.RepositoryQuery;
 import org.springframework.data.repository.query.ResultProcessor;
@@ -67,10 +70,13 @@ public abstract class AbstractMybatisQuery implements RepositoryQuery {
 
 	protected final Dialect dialect;
 
+	private final PageCounter pageCounter;
+
 	protected AbstractMybatisQuery(SqlSessionTemplate sqlSessionTemplate, MybatisQueryMethod method, Dialect dialect) {
 		this.sqlSessionTemplate = sqlSessionTemplate;
 		this.method = method;
 		this.dialect = dialect;
+		this.pageCounter = PageCounter.of(method.getPageCountAnnotation());
 	}
 
 	@Override
@@ -113,10 +119,40 @@ public abstract class AbstractMybatisQuery implements RepositoryQuery {
 		return getNamespace() + ".count_" + getStatementName();
 	}
 
+	/**
+	 * @return the page query also selecting the total of all rows, see
+	 *         {@link org.springframework.data.mybatis.repository.dialect.pagination.LimitHandler#processSqlWithTotal}.
+	 */
+	protected String getWindowStatementId() {
+		return getNamespace() + ".window_" + getStatementName();
+	}
+
 	protected String getQueryForDeleteStatementId() {
 		return getNamespace() + ".query_" + getStatementName();
 	}
 
+	/**
+	 * @return the estimated row count statement of the entity table, it only exists if the dialect can estimate.
+	 *         {@literal null} if the query has a condition, the estimate of the whole table is no total then.
+	 */
+	protected String getEstimateCountStatementId() {
+		if (hasCondition()) {
+			return null;
+		}
+		return method.getEntityInformation().getJavaType().getName() + "._estimateCount";
+	}
+
+	/**
+	 * @return whether the query may select less than all rows of the table, native statements always may.
+	 */
+	protected boolean hasCondition() {
+		return true;
+	}
+
+	protected PageCounter getPageCounter() {
+		return pageCounter;
+	}
+
 	protected String getNamespace() {
 		Statement annotation = method.getStatementAnnotation();
 		if (null == annotation || StringUtils.isEmpty(annotation.namespace())) {
@@ -142,6 +178,13 @@ public abstract class AbstractMybatisQuery implements RepositoryQuery {
 		return annotation.value();
 	}
 
+	/**
+	 * @return unique property appended to the sort of keyset queries, {@literal null} if unknown.
+	 */
+	protected String getKeysetTieBreaker() {
+		return null;
+	}
+
 	public SqlSessionTemplate getSqlSessionTemplate() {
 		return sqlSessionTemplate;
 	}
@@ -172,7 +215,11 @@ public abstract class AbstractMybatisQuery implements RepositoryQuery {
 			}
 		}
 
-		if (method.isStreamQuery()) {
+		if (method.isKeysetQuery()) {
+			return new KeysetExecution();
+		} else if (method.isResultHandlerQuery()) {
+			return new ResultHandlerExecution();
+		} else if (method.isStreamQuery()) {
 			return new StreamExecution();
 		} else if (method.isSliceQuery()) {
 			return new SlicedExecution();
@@ -0,0 +1,199 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.query;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.mybatis.annotations.QueryCache;
+import org.springframework.data.mybatis.annotations.Statement;
+import org.springframework.data.mybatis.mapping.MybatisMappingContext;
+import org.springframework.data.mybatis.repository.domain.KeysetSlice;
+import org.springframework.data.mybatis.repository.support.ExpiringCache;
+import org.springframework.data.mybatis.repository.support.QueryCacheRegistry;
+import org.springframework.data.repository.query.Parameter;
+import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * a {@link RepositoryQuery} remembering its results by arguments, see {@link QueryCache}.
+ * <p>
+ * Like the entity cache, results are copied in and out: lists, sets, pages and slices are rebuilt around shallow
+ * copies of the entities of the query, so callers changing their result do not change the cache. Other objects, like
+ * projections, are shared.
+ *
+ * @author Jarvis Song
+ */
+class CachingMybatisQuery implements RepositoryQuery {
+
+	private static final Object NULL = new Object();
+
+	private final RepositoryQuery query;
+
+	private final ExpiringCache<List<Object>, Object> results;
+
+	private final Class<?> domainClass;
+
+	private CachingMybatisQuery(RepositoryQuery query, ExpiringCache<List<Object>, Object> results,
+			Class<?> domainClass) {
+		this.query = query;
+		this.results = results;
+		this.domainClass = domainClass;
+	}
+
+	/**
+	 * @return {@code query} caching its results if its method is annotated with {@link QueryCache}.
+	 */
+	static RepositoryQuery wrap(RepositoryQuery query, MybatisMappingContext context, QueryCacheRegistry registry) {
+		if (!(query.getQueryMethod() instanceof MybatisQueryMethod)) {
+			return query;
+		}
+		MybatisQueryMethod method = (MybatisQueryMethod) query.getQueryMethod();
+		QueryCache annotation = method.getQueryCacheAnnotation();
+		if (null == annotation) {
+			return query;
+		}
+		if (method.isStreamQuery() || method.isResultHandlerQuery() || isModifying(method)) {
+			throw new IllegalStateException(
+					String.format("Query method %s does not return its rows, it can not be cached!", method));
+		}
+		for (Parameter parameter : method.getParameters()) {
+			if (!hasEquals(parameter.getType())) {
+				throw new IllegalStateException(String.format(
+						"Query method %s takes a %s, which does not implement equals, it can not be cached!", method,
+						parameter.getType().getName()));
+			}
+		}
+		Class<?> domainClass = method.getEntityInformation().getJavaType();
+		ExpiringCache<List<Object>, Object> results = new ExpiringCache<>(annotation.ttl(), annotation.maxSize());
+		registry.register(context.getPersistentEntity(domainClass).getTableName(), results);
+		return new CachingMybatisQuery(query, results, domainClass);
+	}
+
+	/**
+	 * @return whether arguments of {@code type} can be told apart, arrays are compared by their elements.
+	 */
+	private static boolean hasEquals(Class<?> type) {
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+		if (type.isPrimitive() || type.isInterface()) {
+			return true;
+		}
+		return ReflectionUtils.findMethod(type, "equals", Object.class).getDeclaringClass() != Object.class;
+	}
+
+	private static boolean isModifying(MybatisQueryMethod method) {
+		Statement statement = method.getStatementAnnotation();
+		if (null == statement) {
+			return false;
+		}
+		switch (statement.type()) {
+		case INSERT:
+		case UPDATE:
+		case DELETE:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	@Override
+	public Object execute(Object[] parameters) {
+		// the cache holds committed rows only, inside a read-write transaction the database is read.
+		if (TransactionSynchronizationManager.isActualTransactionActive()
+				&& !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return query.execute(parameters);
+		}
+		List<Object> key = keyOf(parameters);
+		Object result = results.get(key);
+		if (null != result) {
+			return result == NULL ? null : copyOf(result);
+		}
+		long stamp = results.stamp(key);
+		result = query.execute(parameters);
+		results.put(key, null == result ? NULL : copyOf(result), stamp);
+		return result;
+	}
+
+	/**
+	 * arrays are replaced by lists of their elements, which compare by content and can not be changed by the caller.
+	 */
+	private static List<Object> keyOf(Object array) {
+		int length = Array.getLength(array);
+		List<Object> key = new ArrayList<>(length);
+		for (int i = 0; i < length; i++) {
+			Object element = Array.get(array, i);
+			key.add(null != element && element.getClass().isArray() ? keyOf(element) : element);
+		}
+		return key;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object copyOf(Object result) {
+		if (result.getClass() == domainClass) {
+			Object copy = BeanUtils.instantiateClass(domainClass);
+			ReflectionUtils.shallowCopyFieldState(result, copy);
+			return copy;
+		}
+		if (result instanceof Page) {
+			Page<?> page = (Page<?>) result;
+			return new PageImpl(copyOf(page.getContent()), page.getPageable(), page.getTotalElements());
+		}
+		if (result instanceof Slice) {
+			Slice<?> slice = (Slice<?>) result;
+			return new SliceImpl(copyOf(slice.getContent()), slice.getPageable(), slice.hasNext());
+		}
+		if (result instanceof KeysetSlice) {
+			KeysetSlice<?> slice = (KeysetSlice<?>) result;
+			return new KeysetSlice(copyOf(slice.getContent()), slice.getPageable(), slice.hasNext());
+		}
+		if (result instanceof Set) {
+			return new LinkedHashSet<>(copyOf((Collection<?>) result));
+		}
+		if (result instanceof Collection) {
+			return copyOf((Collection<?>) result);
+		}
+		return result;
+	}
+
+	private List<Object> copyOf(Collection<?> elements) {
+		List<Object> copies = new ArrayList<>(elements.size());
+		for (Object element : elements) {
+			copies.add(null == element ? null : copyOf(element));
+		}
+		return copies;
+	}
+
+	@Override
+	public QueryMethod getQueryMethod() {
+		return query.getQueryMethod();
+	}
+}
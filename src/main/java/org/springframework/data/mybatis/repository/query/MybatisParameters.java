@@ -19,12 +19,16 @@
 package org.springframework.data.mybatis.repository.query;
 
 import org.springframework.core.MethodParameter;
+import org.springframework.data.mybatis.repository.domain.KeysetPageable;
 import org.springframework.data.mybatis.repository.query.MybatisParameters.MybatisParameter;
 import org.springframework.data.repository.query.Parameter;
 import org.springframework.data.repository.query.Parameters;
 
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.ibatis.session.ResultHandler;
 
 /**
  * mybatis parameters implementation of spring data query method's parameters.
@@ -51,6 +55,41 @@ public class MybatisParameters extends Parameters<MybatisParameters, MybatisPara
 		return new MybatisParameters(parameters);
 	}
 
+	public boolean hasKeysetPageableParameter() {
+		return getKeysetPageableIndex() != -1;
+	}
+
+	/**
+	 * @return index of the {@link KeysetPageable} parameter, -1 if there is none.
+	 */
+	public int getKeysetPageableIndex() {
+		for (MybatisParameter parameter : this) {
+			if (KeysetPageable.class.equals(parameter.getType())) {
+				return parameter.getIndex();
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return whether the method takes a {@link ResultHandler} or {@link Consumer} the rows are passed to.
+	 */
+	public boolean hasResultHandlerParameter() {
+		return getResultHandlerIndex() != -1;
+	}
+
+	/**
+	 * @return index of the {@link ResultHandler} or {@link Consumer} parameter, -1 if there is none.
+	 */
+	public int getResultHandlerIndex() {
+		for (MybatisParameter parameter : this) {
+			if (parameter.isResultHandler()) {
+				return parameter.getIndex();
+			}
+		}
+		return -1;
+	}
+
 	public static class MybatisParameter extends Parameter {
 
 		/**
@@ -63,5 +102,14 @@ public class MybatisParameters extends Parameters<MybatisParameters, MybatisPara
 
 		}
 
+		@Override
+		public boolean isSpecialParameter() {
+			return super.isSpecialParameter() || isResultHandler() || KeysetPageable.class.equals(getType());
+		}
+
+		boolean isResultHandler() {
+			return ResultHandler.class.isAssignableFrom(getType()) || Consumer.class.isAssignableFrom(getType());
+		}
+
 	}
 }
@@ -18,23 +18,38 @@
 
 package org.springframework.data.mybatis.repository.query;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.mybatis.spring.SqlSessionUtils;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.support.ConfigurableConversionService;
 import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.mybatis.repository.domain.KeysetPageable;
+import org.springframework.data.mybatis.repository.domain.KeysetSlice;
 import org.springframework.data.mybatis.repository.query.MybatisParameters.MybatisParameter;
-import org.springframework.data.mybatis.repository.support.NativePagedQueryPlugin;
+import org.springframework.data.mybatis.repository.support.NativePagedRowBounds;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
-import org.springframework.util.CollectionUtils;
 
 /**
  * base query execution of mybatis implementation.
@@ -177,6 +192,40 @@ public abstract class MybatisQueryExecution {
 		}
 	}
 
+	/**
+	 * reads one {@link KeysetSlice}, the rows after the keyset of the {@link KeysetPageable} parameter.
+	 */
+	static class KeysetExecution extends MybatisQueryExecution {
+
+		@Override
+		protected Object doExecute(AbstractMybatisQuery query, Object[] values) {
+			MybatisParameters parameters = query.getQueryMethod().getParameters();
+			Map<String, Object> parameter = new HashMap<String, Object>();
+			int c = 0;
+			for (MybatisParameter param : parameters.getBindableParameters()) {
+				String name = param.getName().orElse("p" + c);
+				parameter.put(name, values[param.getIndex()]);
+				c++;
+			}
+
+			KeysetPageable pageable = (KeysetPageable) values[parameters.getKeysetPageableIndex()];
+			Assert.notNull(pageable, "KeysetPageable must not be null!");
+			pageable = pageable.withTieBreaker(query.getKeysetTieBreaker());
+
+			parameter.put("offset", 0L);
+			parameter.put("pageSize", pageable.getSize() + 1);
+			parameter.put("offsetEnd", pageable.getSize() + 1L);
+			parameter.put("_sorts", pageable.getSort());
+			parameter.put("_keyset", pageable.getConditions());
+			List<Object> rows = query.getSqlSessionTemplate().selectList(query.getStatementId(), parameter);
+			return KeysetSlice.of(rows, pageable);
+		}
+	}
+
+	/**
+	 * reads one {@link org.springframework.data.domain.Page}, its total is counted as the
+	 * {@link org.springframework.data.mybatis.annotations.PageCount} of the method tells.
+	 */
 	static class PagedExecution extends MybatisQueryExecution {
 
 		@SuppressWarnings({ "rawtypes", "unchecked" })
@@ -205,39 +254,41 @@ public abstract class MybatisQueryExecution {
 			parameter.put("pageSize", null == pager ? Integer.MAX_VALUE : pager.getPageSize());
 			parameter.put("offsetEnd", null == pager ? Integer.MAX_VALUE : pager.getOffset() + pager.getPageSize());
 
-			List<?> result = new ArrayList<>();
-			try {
-				if (query.isNativeStatement()) {
-					NativePagedQueryPlugin.startNativePagedQuery(query.getDialect());
-				}
-				result = query.getSqlSessionTemplate().selectList(query.getStatementId(), parameter);
-			} finally {
-				if (query.isNativeStatement()) {
-					NativePagedQueryPlugin.endNativePagedQuery();
-				}
+			if (null == pager) {
+				return new PageImpl(select(query, parameter));
 			}
 
-			if (null == pager) {
-				return new PageImpl(result);
+			String estimateStatementId = query.getEstimateCountStatementId();
+			String windowStatementId = query.getWindowStatementId();
+			return query.getPageCounter().page(pager, parameter, () -> select(query, parameter),
+					() -> count(query, parameter),
+					() -> null != estimateStatementId
+							&& query.getSqlSessionTemplate().getConfiguration().hasStatement(estimateStatementId, false)
+							? query.getSqlSessionTemplate().<Long> selectOne(estimateStatementId) : null,
+					query.getSqlSessionTemplate().getConfiguration().hasStatement(windowStatementId, false)
+							? rowBounds -> query.getSqlSessionTemplate().selectList(windowStatementId, parameter, rowBounds)
+							: null,
+					query.getStatementId());
+		}
+
+		private List<Object> select(AbstractMybatisQuery query, Map<String, Object> parameter) {
+			if (query.isNativeStatement()) {
+				return query.getSqlSessionTemplate().selectList(query.getStatementId(), parameter,
+						NativePagedRowBounds.page(query.getDialect()));
 			}
+			return query.getSqlSessionTemplate().selectList(query.getStatementId(), parameter);
+		}
 
-			long total = calculateTotal(pager, result);
-			if (total < 0) {
-				if (isCountStatementIdExist(query)) {
-					total = query.getSqlSessionTemplate().selectOne(query.getCountStatementId(), parameter);
-				} else {
-					if (query.isNativeStatement()) {
-						NativePagedQueryPlugin.startNativePagedCountQuery();
-						try {
-							query.getSqlSessionTemplate().clearCache();
-							total = query.getSqlSessionTemplate().selectOne(query.getStatementId(), parameter);
-						} finally {
-							NativePagedQueryPlugin.endNativePagedCountQuery();
-						}
-					}
-				}
+		private long count(AbstractMybatisQuery query, Map<String, Object> parameter) {
+			if (isCountStatementIdExist(query)) {
+				return query.getSqlSessionTemplate().<Long> selectOne(query.getCountStatementId(), parameter);
+			}
+			if (!query.isNativeStatement()) {
+				return -1;
 			}
-			return new PageImpl(result, pager, total);
+			List<Long> counts = query.getSqlSessionTemplate().selectList(query.getStatementId(), parameter,
+					NativePagedRowBounds.COUNT);
+			return counts.get(0);
 		}
 
 		private boolean isCountStatementIdExist(AbstractMybatisQuery query) {
@@ -248,19 +299,6 @@ public abstract class MybatisQueryExecution {
 				return false;
 			}
 		}
-
-		protected <X> long calculateTotal(Pageable pager, List<X> result) {
-			if (pager.hasPrevious()) {
-				if (CollectionUtils.isEmpty(result))
-					return -1;
-				if (result.size() == pager.getPageSize())
-					return -1;
-				return (pager.getPageNumber() - 1) * pager.getPageSize() + result.size();
-			}
-			if (result.size() < pager.getPageSize())
-				return result.size();
-			return -1;
-		}
 	}
 
 	static class InsertExecution extends MybatisQueryExecution {
@@ -326,15 +364,82 @@ public abstract class MybatisQueryExecution {
 		}
 	}
 
+	/**
+	 * reads the rows through a mybatis {@link Cursor}, only the fetched rows are held in memory.
+	 * <p>
+	 * The returned {@link Stream} keeps the cursor open until it is closed, so it must be closed, e.g. by a
+	 * try-with-resources block. Like Spring Data JPA, a surrounding transaction is required: it holds the connection
+	 * while the stream is consumed, releases it when the stream was not closed, and turns auto-commit off, without which
+	 * drivers like PostgreSQL ignore the fetch size and read all rows at once.
+	 */
 	static class StreamExecution extends MybatisQueryExecution {
 
 		@Override
 		protected Object doExecute(AbstractMybatisQuery query, Object[] values) {
 
-			if (null == values || values.length == 0) {
-				return query.getSqlSessionTemplate().selectList(query.getStatementId());
+			Map<String, Object> parameter = null;
+			if (null != values && values.length > 0) {
+				MybatisParameters parameters = query.getQueryMethod().getParameters();
+				parameter = new HashMap<String, Object>();
+
+				int c = 0;
+				for (MybatisParameter param : parameters.getBindableParameters()) {
+					String name = param.getName().orElse("p" + c);
+					parameter.put(name, values[param.getIndex()]);
+					c++;
+				}
+
+				if (parameters.hasSortParameter()) {
+					parameter.put("_sorts", values[parameters.getSortIndex()]);
+				}
+			}
+
+			if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+				throw new InvalidDataAccessApiUsageException(String.format(
+						"Query method %s returns a Stream, which needs a surrounding transaction to keep its connection open "
+								+ "while it is consumed. Call it from a @Transactional (read-only) method.",
+						query.getQueryMethod()));
+			}
+
+			SqlSessionTemplate template = query.getSqlSessionTemplate();
+			SqlSessionFactory sqlSessionFactory = template.getSqlSessionFactory();
+			// bound to the surrounding transaction, the template would close the session right away.
+			SqlSession sqlSession = SqlSessionUtils.getSqlSession(sqlSessionFactory, template.getExecutorType(),
+					template.getPersistenceExceptionTranslator());
+			Cursor<Object> cursor;
+			try {
+				cursor = sqlSession.selectCursor(query.getStatementId(), parameter);
+			} catch (PersistenceException e) {
+				SqlSessionUtils.closeSqlSession(sqlSession, sqlSessionFactory);
+				DataAccessException translated = template.getPersistenceExceptionTranslator()
+						.translateExceptionIfPossible(e);
+				throw null != translated ? translated : e;
+			} catch (RuntimeException e) {
+				SqlSessionUtils.closeSqlSession(sqlSession, sqlSessionFactory);
+				throw e;
 			}
 
+			return StreamSupport.stream(cursor.spliterator(), false).onClose(() -> {
+				try {
+					cursor.close();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				} finally {
+					SqlSessionUtils.closeSqlSession(sqlSession, sqlSessionFactory);
+				}
+			});
+		}
+
+	}
+
+	/**
+	 * passes the rows to the {@link ResultHandler} or {@link Consumer} parameter of the method one by one.
+	 */
+	static class ResultHandlerExecution extends MybatisQueryExecution {
+
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		@Override
+		protected Object doExecute(AbstractMybatisQuery query, Object[] values) {
 			MybatisParameters parameters = query.getQueryMethod().getParameters();
 			Map<String, Object> parameter = new HashMap<String, Object>();
 
@@ -349,10 +454,14 @@ public abstract class MybatisQueryExecution {
 				parameter.put("_sorts", values[parameters.getSortIndex()]);
 			}
 
-			return query.getSqlSessionTemplate().selectList(query.getStatementId(), parameter);
+			Object handler = values[parameters.getResultHandlerIndex()];
+			Assert.notNull(handler, "ResultHandler or Consumer must not be null!");
+			ResultHandler resultHandler = handler instanceof ResultHandler ? (ResultHandler) handler
+					: context -> ((Consumer) handler).accept(context.getResultObject());
 
+			query.getSqlSessionTemplate().select(query.getStatementId(), parameter, resultHandler);
+			return null;
 		}
-
 	}
 
 	static class DeleteExecution extends MybatisQueryExecution {
@@ -21,6 +21,7 @@ package org.springframework.data.mybatis.repository.query;
 import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.data.mybatis.mapping.MybatisMappingContext;
 import org.springframework.data.mybatis.repository.dialect.Dialect;
+import org.springframework.data.mybatis.repository.support.QueryCacheRegistry;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.repository.core.NamedQueries;
 import org.springframework.data.repository.core.RepositoryMetadata;
@@ -125,19 +126,27 @@ public final class MybatisQueryLookupStrategy {
 	}
 
 	public static QueryLookupStrategy create(MybatisMappingContext context, SqlSessionTemplate sqlSessionTemplate,
-			Dialect dialect, Key key, EvaluationContextProvider evaluationContextProvider) {
+			Dialect dialect, Key key, EvaluationContextProvider evaluationContextProvider,
+			QueryCacheRegistry queryCaches) {
 		Assert.notNull(evaluationContextProvider, "EvaluationContextProvider must not be null!");
+		Assert.notNull(queryCaches, "QueryCacheRegistry must not be null!");
+		QueryLookupStrategy strategy;
 		switch (key != null ? key : Key.CREATE_IF_NOT_FOUND) {
 		case CREATE:
-			return new CreateQueryLookupStrategy(context, sqlSessionTemplate, dialect);
+			strategy = new CreateQueryLookupStrategy(context, sqlSessionTemplate, dialect);
+			break;
 		case USE_DECLARED_QUERY:
-			return new DeclaredQueryLookupStrategy(sqlSessionTemplate, evaluationContextProvider, dialect);
+			strategy = new DeclaredQueryLookupStrategy(sqlSessionTemplate, evaluationContextProvider, dialect);
+			break;
 		case CREATE_IF_NOT_FOUND:
-			return new CreateIfNotFoundQueryLookupStrategy(
+			strategy = new CreateIfNotFoundQueryLookupStrategy(
 					new CreateQueryLookupStrategy(context, sqlSessionTemplate, dialect),
 					new DeclaredQueryLookupStrategy(sqlSessionTemplate, evaluationContextProvider, dialect));
+			break;
 		default:
 			throw new IllegalArgumentException(String.format("Unsupported query lookup strategy %s!", key));
 		}
+		return (method, metadata, factory, namedQueries) -> CachingMybatisQuery
+				.wrap(strategy.resolveQuery(method, metadata, factory, namedQueries), context, queryCaches);
 	}
 }
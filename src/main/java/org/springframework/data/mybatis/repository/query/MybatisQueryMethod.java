@@ -23,6 +23,9 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.mybatis.annotations.PageCount;
+import org.springframework.data.mybatis.annotations.QueryCache;
 import org.springframework.data.mybatis.annotations.Statement;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.repository.core.RepositoryMetadata;
@@ -41,6 +44,8 @@ public class MybatisQueryMethod extends QueryMethod {
 
 	private final Method method;
 
+	private final Class<?> repositoryInterface;
+
 	static {
 
 		Set<Class<?>> types = new HashSet<Class<?>>();
@@ -65,6 +70,7 @@ public class MybatisQueryMethod extends QueryMethod {
 
 		Assert.notNull(method, "Method must not be null!");
 		this.method = method;
+		this.repositoryInterface = metadata.getRepositoryInterface();
 
 		Assert.isTrue(!(isModifyingQuery() && getParameters().hasSpecialParameter()),
 				String.format("Modifying method must not contain %s!", Parameters.TYPES));
@@ -86,6 +92,21 @@ public class MybatisQueryMethod extends QueryMethod {
 		return super.isCollectionQuery() && !NATIVE_ARRAY_TYPES.contains(method.getReturnType());
 	}
 
+	/**
+	 * @return whether the rows are passed to a {@link org.apache.ibatis.session.ResultHandler} or
+	 *         {@link java.util.function.Consumer} parameter instead of being returned.
+	 */
+	public boolean isResultHandlerQuery() {
+		return getParameters().hasResultHandlerParameter();
+	}
+
+	/**
+	 * @return whether the method reads a {@link org.springframework.data.mybatis.repository.domain.KeysetSlice}.
+	 */
+	public boolean isKeysetQuery() {
+		return getParameters().hasKeysetPageableParameter();
+	}
+
 	Class<?> getReturnType() {
 		return method.getReturnType();
 	}
@@ -94,4 +115,19 @@ public class MybatisQueryMethod extends QueryMethod {
 		return method.getAnnotation(Statement.class);
 	}
 
+	/**
+	 * @return the {@link PageCount} of the method, or else of the repository interface.
+	 */
+	PageCount getPageCountAnnotation() {
+		PageCount annotation = AnnotatedElementUtils.findMergedAnnotation(method, PageCount.class);
+		if (null == annotation) {
+			annotation = AnnotatedElementUtils.findMergedAnnotation(repositoryInterface, PageCount.class);
+		}
+		return annotation;
+	}
+
+	QueryCache getQueryCacheAnnotation() {
+		return AnnotatedElementUtils.findMergedAnnotation(method, QueryCache.class);
+	}
+
 }
@@ -18,31 +18,31 @@
 
 package org.springframework.data.mybatis.repository.query;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
-import java.util.UUID;
 
-import org.apache.ibatis.builder.xml.XMLMapperBuilder;
 import org.apache.ibatis.session.Configuration;
 import org.mybatis.spring.SqlSessionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.mapping.MappingException;
+import org.springframework.data.mybatis.annotations.PageCount;
 import org.springframework.data.mybatis.mapping.MybatisEmbeddedAssociation;
 import org.springframework.data.mybatis.mapping.MybatisMappingContext;
 import org.springframework.data.mybatis.mapping.MybatisPersistentEntity;
 import org.springframework.data.mybatis.mapping.MybatisPersistentProperty;
 import org.springframework.data.mybatis.repository.dialect.Dialect;
+import org.springframework.data.mybatis.repository.domain.KeysetSlice;
+import org.springframework.data.mybatis.repository.query.MybatisParameters.MybatisParameter;
 import org.springframework.data.mybatis.repository.query.MybatisQueryExecution.DeleteExecution;
 import org.springframework.data.mybatis.repository.support.MybatisMapperGenerator;
 import org.springframework.data.mybatis.repository.support.MybatisQueryException;
+import org.springframework.data.mybatis.repository.support.MybatisStatementRegister;
 import org.springframework.data.repository.core.EntityMetadata;
 import org.springframework.data.repository.query.parser.Part;
 import org.springframework.data.repository.query.parser.Part.IgnoreCaseType;
 import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.util.DigestUtils;
 
 import static org.springframework.data.repository.query.parser.Part.IgnoreCaseType.*;
 
@@ -55,11 +55,6 @@ public class PartTreeMybatisQuery extends AbstractMybatisQuery {
 
 	private transient static final Logger logger = LoggerFactory.getLogger(PartTreeMybatisQuery.class);
 
-	private static final String MAPPER_BEGIN = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
-			+ "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">";
-
-	private static final String MAPPER_END = "</mapper>";
-
 	private final EntityMetadata<?> entityInformation;
 
 	private final Class<?> domainClass;
@@ -83,11 +78,31 @@ public class PartTreeMybatisQuery extends AbstractMybatisQuery {
 		this.parameters = method.getParameters();
 		this.persistentEntity = context.getPersistentEntity(domainClass);
 		this.generator = new MybatisMapperGenerator(dialect, persistentEntity);
-		this.statementName = super.getStatementName() + UUID.randomUUID().toString().replace("-", "");
+		this.statementName = super.getStatementName() + "_" + signature();
 
 		doCreateQueryStatement(method); // prepare mybatis statement.
 	}
 
+	/**
+	 * digest of everything the generated statements depend on, identical derived queries share them. Whatever decides
+	 * which statements are generated belongs here too, a method sharing them must not miss one, like the
+	 * {@code window_} statement of a {@link PageCount.Strategy#WINDOW} count.
+	 */
+	private String signature() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(domainClass.getName()).append(';').append(method.getName()).append(';');
+		for (MybatisParameter parameter : parameters) {
+			builder.append(parameter.getType().getName()).append(' ').append(parameter.getName().orElse(""))
+					.append(',');
+		}
+		builder.append(';').append(method.getReturnedObjectType().getName()).append(';');
+		builder.append(method.isPageQuery()).append(method.isSliceQuery()).append(method.isStreamQuery())
+				.append(method.isCollectionQuery()).append(method.isQueryForEntity()).append(method.isKeysetQuery())
+				.append(method.isResultHandlerQuery()).append(';');
+		builder.append(getPageCounter().getStrategy()).append(';');
+		return DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
 	private String quota(String alias) {
 		return dialect.openQuote() + alias + dialect.closeQuote();
 	}
@@ -105,10 +120,31 @@ public class PartTreeMybatisQuery extends AbstractMybatisQuery {
 		return statementName;
 	}
 
+	@Override
+	protected boolean hasCondition() {
+		return tree.iterator().hasNext();
+	}
+
+	@Override
+	protected String getKeysetTieBreaker() {
+		MybatisPersistentProperty idProperty = persistentEntity.getIdProperty();
+		return null == idProperty || idProperty.isCompositeId() ? null : idProperty.getName();
+	}
+
 	private String buildQueryCondition() {
+		return buildQueryCondition(null);
+	}
+
+	/**
+	 * @param extra condition and-ed with the or-ed parts of the tree, may be {@literal null}.
+	 */
+	private String buildQueryCondition(String extra) {
 
 		StringBuilder builder = new StringBuilder();
 		builder.append("<trim prefix=\" where \" prefixOverrides=\"and |or \">");
+		if (null != extra) {
+			builder.append("<trim prefix=\" and (\" suffix=\")\" prefixOverrides=\"and |or \">");
+		}
 		int c = 0;
 		for (Iterator<PartTree.OrPart> iterator = tree.iterator(); iterator.hasNext();) {
 			PartTree.OrPart orPart = iterator.next();
@@ -163,6 +199,10 @@ public class PartTreeMybatisQuery extends AbstractMybatisQuery {
 			builder.append(" )");
 
 		}
+		if (null != extra) {
+			builder.append("</trim>");
+			builder.append(extra);
+		}
 		builder.append("</trim>");
 		return builder.toString();
 	}
@@ -175,58 +215,69 @@ public class PartTreeMybatisQuery extends AbstractMybatisQuery {
 		return paramName;
 	}
 
-	private String doCreateDeleteQueryStatement() {
+	private void doCreateDeleteQueryStatement(MybatisStatementRegister register) {
 		StringBuilder builder = new StringBuilder();
-		builder.append("<delete id=\"" + getStatementName() + "\" lang=\"XML\">");
 		builder.append("delete");
 		if (dialect.supportsDeleteAlias()) {
 			builder.append(" ").append(quota(persistentEntity.getEntityName()));
 		}
 		builder.append(" from ").append(generator.buildFrom()).append(" ");
 		builder.append(buildQueryCondition());
-		builder.append("</delete>");
+		register.addDelete(getStatementName(), builder.toString(), null);
 
 		if (method.isCollectionQuery()) {
 			// query first, then delete
-			builder.append(doCreateSelectQueryStatement("query_" + getStatementName()));
+			doCreateSelectQueryStatement(register, "query_" + getStatementName());
 		}
-
-		return builder.toString();
 	}
 
-	private String doCreateCountQueryStatement(String statementName) {
+	private void doCreateCountQueryStatement(MybatisStatementRegister register, String statementName) {
 		StringBuilder builder = new StringBuilder();
-		builder.append("<select id=\"" + statementName + "\" lang=\"XML\" resultType=\"long\">");
 		builder.append("select count(*) from ");
 		builder.append(generator.buildFrom());
 		builder.append(buildQueryCondition());
-		builder.append("</select>");
-		return builder.toString();
+		register.addSelect(statementName, builder.toString(), null, Long.class);
 	}
 
-	private String doCreatePageQueryStatement(boolean includeCount) {
+	private void doCreatePageQueryStatement(MybatisStatementRegister register, boolean includeCount) {
 		Class<?> returnedObjectType = method.getReturnedObjectType();
 		if (returnedObjectType != domainClass && !returnedObjectType.isAssignableFrom(domainClass)) {
 			throw new IllegalArgumentException("return object type must be or assignable from " + domainClass);
 		}
-		StringBuilder builder = new StringBuilder();
 		StringBuilder condition = new StringBuilder();
 		condition.append(buildQueryCondition());
-		builder.append("<select id=\"" + statementName + "\" lang=\"XML\" resultMap=\"ResultMap\">");
-		builder.append(dialect.getLimitHandler().processSql(generator.buildSelectColumns(),
-				" from " + generator.buildFrom(), condition.toString(), generator.buildSorts(tree.getSort())));
-		builder.append("</select>");
+		register.addSelect(statementName, dialect.getLimitHandler().processSql(generator.buildSelectColumns(),
+				" from " + generator.buildFrom(), condition.toString(), generator.buildSorts(tree.getSort())), "ResultMap",
+				null);
 
 		if (includeCount) {
-			builder.append(doCreateCountQueryStatement("count_" + getStatementName()));
+			doCreateCountQueryStatement(register, "count_" + getStatementName());
 		}
+		if (includeCount && getPageCounter().getStrategy() == PageCount.Strategy.WINDOW
+				&& dialect.getLimitHandler().supportsWindowCount()) {
+			register.addSelect("window_" + getStatementName(),
+					dialect.getLimitHandler().processSqlWithTotal(generator.buildSelectColumns(),
+							" from " + generator.buildFrom(), condition.toString(), generator.buildSorts(tree.getSort())),
+					"ResultMap", null);
+		}
+	}
 
-		return builder.toString();
+	private void doCreateKeysetQueryStatement(MybatisStatementRegister register) {
+		Class<?> returnedObjectType = method.getReturnedObjectType();
+		if (!KeysetSlice.class.isAssignableFrom(returnedObjectType)) {
+			throw new IllegalArgumentException("keyset query must return " + KeysetSlice.class.getName());
+		}
+		if (tree.getSort().isSorted()) {
+			throw new IllegalArgumentException("keyset query takes its order from KeysetPageable, remove OrderBy from "
+					+ method.getName());
+		}
+		register.addSelect(statementName, dialect.getLimitHandler().processSql(generator.buildSelectColumns(),
+				" from " + generator.buildFrom(), buildQueryCondition(generator.buildKeysetCondition()),
+				generator.buildSorts(null)), "ResultMap", null);
 	}
 
-	private String doCreateSelectOneQueryStatement(String statementName) {
+	private void doCreateSelectOneQueryStatement(MybatisStatementRegister register, String statementName) {
 		StringBuilder builder = new StringBuilder();
-		builder.append("<select id=\"" + statementName + "\" lang=\"XML\" resultMap=\"ResultMap\">");
 		builder.append("select ");
 
 		if (tree.isDistinct()) {
@@ -239,13 +290,16 @@ public class PartTreeMybatisQuery extends AbstractMybatisQuery {
 		// build condition
 		builder.append(buildQueryCondition());
 
-		builder.append("</select>");
-		return builder.toString();
+		register.addSelect(statementName, builder.toString(), "ResultMap", null);
+	}
+
+	private void doCreateSelectQueryStatement(MybatisStatementRegister register, String statementName) {
+		doCreateSelectQueryStatement(register, statementName, null);
 	}
 
-	private String doCreateSelectQueryStatement(String statementName) {
+	private void doCreateSelectQueryStatement(MybatisStatementRegister register, String statementName,
+			Integer fetchSize) {
 		StringBuilder builder = new StringBuilder();
-		builder.append("<select id=\"" + statementName + "\" lang=\"XML\" resultMap=\"ResultMap\">");
 		builder.append("select ");
 
 		if (tree.isDistinct()) {
@@ -260,87 +314,70 @@ public class PartTreeMybatisQuery extends AbstractMybatisQuery {
 
 		builder.append(generator.buildSorts(tree.getSort()));
 
-		builder.append("</select>");
-		return builder.toString();
+		register.addSelect(statementName, builder.toString(), "ResultMap", null, fetchSize);
 	}
 
-	private String doCreateCollectionQueryStatement() {
+	private void doCreateCollectionQueryStatement(MybatisStatementRegister register, Integer fetchSize) {
 		Class<?> returnedObjectType = method.getReturnedObjectType();
 
 		if (returnedObjectType != domainClass && !returnedObjectType.isAssignableFrom(domainClass)) {
 			throw new IllegalArgumentException("return object type must be or assignable from " + domainClass);
 		}
 
-		return doCreateSelectQueryStatement(getStatementName());
+		doCreateSelectQueryStatement(register, getStatementName(), fetchSize);
 	}
 
-	private String doCreateExistQueryStatement() {
+	private void doCreateExistQueryStatement(MybatisStatementRegister register) {
 		Class<?> returnedObjectType = method.getReturnedObjectType();
 
 		if (returnedObjectType.equals(Boolean.class)) {
 			throw new IllegalArgumentException("return object type must be boolean or Boolean !");
 		}
 
-		return doCreateSelectQueryStatement(getStatementName());
+		doCreateSelectQueryStatement(register, getStatementName());
 	}
 
 	private void doCreateQueryStatement(MybatisQueryMethod method) {
 
 		Configuration configuration = sqlSessionTemplate.getConfiguration();
 
-		String statementXML = "";
-		if (tree.isDelete()) {
-			statementXML = doCreateDeleteQueryStatement();
-		} else if (tree.isCountProjection()) {
-			statementXML = doCreateCountQueryStatement(getStatementName());
-		} else if (tree.isExistsProjection()) {
-			statementXML = doCreateExistQueryStatement();
-		} else if (method.isPageQuery()) {
-			statementXML = doCreatePageQueryStatement(true);
-		} else if (method.isSliceQuery()) {
-			statementXML = doCreatePageQueryStatement(false);
-		} else if (method.isStreamQuery()) {
-			statementXML = doCreateCollectionQueryStatement();
-		} else if (method.isCollectionQuery()) {
-			statementXML = doCreateCollectionQueryStatement();
-		} else if (method.isQueryForEntity()) {
-			statementXML = doCreateSelectOneQueryStatement(getStatementName());
+		synchronized (configuration) {
+			if (configuration.hasStatement(getStatementId(), false)) {
+				// created by an identical query method before.
+				return;
+			}
 		}
 
-		StringBuilder builder = new StringBuilder();
-		builder.append(MAPPER_BEGIN);
-		builder.append("<mapper namespace=\"" + getNamespace() + "\">");
-		builder.append(statementXML);
-		builder.append(MAPPER_END);
-
-		String xml = builder.toString();
-
-		if (logger.isDebugEnabled()) {
-			logger.debug("\n******************* Auto Generate MyBatis Mapping XML (" + getStatementId()
-					+ ") *******************\n" + xml);
-		}
-		InputStream inputStream = null;
-		try {
-			inputStream = new ByteArrayInputStream(xml.getBytes("UTF-8"));
-		} catch (UnsupportedEncodingException e) {
-			// ignore
-		}
 		String namespace = getNamespace();
-		String resource = getStatementId() + "_auto_generate.xml";
 		try {
-			XMLMapperBuilder xmlMapperBuilder = new XMLMapperBuilder(inputStream, configuration, resource,
-					configuration.getSqlFragments(), namespace);
-			xmlMapperBuilder.parse();
+			MybatisStatementRegister register = new MybatisStatementRegister(configuration, namespace,
+					getStatementId() + "_auto_generate");
+			if (tree.isDelete()) {
+				doCreateDeleteQueryStatement(register);
+			} else if (tree.isCountProjection()) {
+				doCreateCountQueryStatement(register, getStatementName());
+			} else if (tree.isExistsProjection()) {
+				doCreateExistQueryStatement(register);
+			} else if (method.isKeysetQuery()) {
+				doCreateKeysetQueryStatement(register);
+			} else if (method.isResultHandlerQuery()) {
+				doCreateSelectQueryStatement(register, getStatementName(), dialect.getStreamFetchSize());
+			} else if (method.isPageQuery()) {
+				doCreatePageQueryStatement(register, true);
+			} else if (method.isSliceQuery()) {
+				doCreatePageQueryStatement(register, false);
+			} else if (method.isStreamQuery()) {
+				doCreateCollectionQueryStatement(register, dialect.getStreamFetchSize());
+			} else if (method.isCollectionQuery()) {
+				doCreateCollectionQueryStatement(register, null);
+			} else if (method.isQueryForEntity()) {
+				doCreateSelectOneQueryStatement(register, getStatementName());
+			}
+		} catch (IllegalArgumentException e) {
+			throw e;
 		} catch (Exception e) {
 			throw new MappingException("create auto mapping error for " + namespace, e);
-		} finally {
-			try {
-				inputStream.close();
-			} catch (IOException e) {
-				logger.error(e.getMessage(), e);
-			}
 		}
-
 	}
 
 }
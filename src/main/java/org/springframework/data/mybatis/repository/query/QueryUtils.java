@@ -23,7 +23,14 @@
 
 package org.springframework.data.mybatis.repository.query;
 
-import org.springframework.data.mybatis.utils.SQLUtils;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.mybatis.utils.SqlTokenizer;
+import org.springframework.data.mybatis.utils.SqlTokenizer.Token;
+import org.springframework.data.mybatis.utils.SqlTokenizer.Type;
 
 /**
  * 
@@ -32,19 +39,149 @@ import org.springframework.data.mybatis.utils.SQLUtils;
  */
 public final class QueryUtils {
 
+	private static final Set<String> AGGREGATE_FUNCTIONS = new HashSet<>(Arrays.asList("count", "sum", "avg", "min",
+			"max", "every", "median", "mode", "listagg", "group_concat", "stddev", "stddev_pop", "stddev_samp",
+			"variance", "var_pop", "var_samp", "bool_and", "bool_or", "bit_and", "bit_or", "percentile_cont",
+			"percentile_disc", "collect"));
+
+	private static final Set<String> LIMITING_KEYWORDS = new HashSet<>(Arrays.asList("limit", "offset", "fetch",
+			"top"));
+
+	private static final Set<String> SET_OPERATORS = new HashSet<>(Arrays.asList("union", "intersect", "except",
+			"minus"));
+
+	/**
+	 * derive the query counting the rows of {@code sql}.
+	 * <p>
+	 * The {@code order by} is dropped and, unless the query is {@code distinct}, grouped, aggregated, limited or a set
+	 * operation, the selected columns are replaced by {@code count(*)}. Other queries are counted as a derived table.
+	 * Clauses holding bind parameters are kept, so the parameters stay in place.
+	 */
 	public static String createCountQueryFor(String sql) {
-		int cetIndex = SQLUtils.matchWithCET(sql);
-		if (cetIndex > 0) {
-			int index = SQLUtils.locateQueryInCTEStatement(sql, cetIndex);
-			String cetPart = sql.substring(0, index);
-			StringBuilder countSql = new StringBuilder();
-			countSql.append(cetPart);
-			String sqlPart = sql.toString().substring(index);
-			countSql.append(" SELECT COUNT(*) FROM ( " + sqlPart + " ) as total");
-			return countSql.toString();
-		} else {
-			return "SELECT COUNT(*) FROM ( " + sql + " ) as total";
+		List<Token> tokens = SqlTokenizer.tokenize(sql);
+		if (tokens.isEmpty()) {
+			return sql;
+		}
+
+		int first = 0;
+		if (tokens.get(0).isWord("with")) {
+			// the expressions are all in parentheses, the first select outside of them starts the query.
+			first = -1;
+			for (int i = 1; i < tokens.size(); i++) {
+				if (tokens.get(i).getDepth() == 0 && tokens.get(i).isWord("select")) {
+					first = i;
+					break;
+				}
+			}
+			if (first < 0) {
+				return wrap("", sql.trim());
+			}
+		}
+		String prefix = sql.substring(0, tokens.get(first).getStart());
+
+		int select = -1;
+		int from = -1;
+		int orderBy = -1;
+		int lock = -1;
+		boolean simple = tokens.get(first).isWord("select");
+		boolean limited = false;
+		for (int i = first; i < tokens.size(); i++) {
+			Token token = tokens.get(i);
+			if (token.getDepth() > 0 || token.getType() != Type.WORD) {
+				continue;
+			}
+			String word = token.getWord();
+			if ("select".equals(word)) {
+				if (select < 0) {
+					select = i;
+				}
+				Token next = i + 1 < tokens.size() ? tokens.get(i + 1) : null;
+				if (null != next && (next.isWord("distinct") || next.isWord("unique"))) {
+					simple = false;
+				}
+			}
+			else if ("from".equals(word)) {
+				if (from < 0) {
+					from = i;
+				}
+			}
+			else if ("order".equals(word) && isFollowedBy(tokens, i, "by")) {
+				orderBy = i;
+			}
+			else if ("for".equals(word) && (isFollowedBy(tokens, i, "update") || isFollowedBy(tokens, i, "share"))) {
+				lock = i;
+			}
+			else if ("group".equals(word) && isFollowedBy(tokens, i, "by") || "having".equals(word)
+					|| SET_OPERATORS.contains(word)) {
+				simple = false;
+			}
+			else if (LIMITING_KEYWORDS.contains(word)) {
+				limited = true;
+			}
+		}
+
+		// trailing comments are left out.
+		int end = tokens.get(tokens.size() - 1).getEnd();
+		// a limited query is counted with its order, locks do not go with aggregates.
+		int tail = orderBy >= 0 ? orderBy : lock;
+		if (tail >= 0) {
+			if (!limited && !hasParameter(tokens, tail, tokens.size())) {
+				end = tokens.get(tail).getStart();
+			}
+			else {
+				simple = false;
+			}
+		}
+		String query = sql.substring(tokens.get(first).getStart(), end).trim();
+
+		if (simple && !limited && select >= 0 && from > select && !hasParameter(tokens, select, from)
+				&& !hasAggregate(tokens, select, from)) {
+			return prefix + "select count(*) " + sql.substring(tokens.get(from).getStart(), end).trim();
+		}
+		return wrap(prefix, query);
+	}
+
+	private static String wrap(String prefix, String query) {
+		return prefix + "select count(*) from ( " + query + " ) total_";
+	}
+
+	private static boolean isFollowedBy(List<Token> tokens, int index, String word) {
+		return index + 1 < tokens.size() && tokens.get(index + 1).isWord(word);
+	}
+
+	private static boolean hasParameter(List<Token> tokens, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (tokens.get(i).getType() == Type.PARAMETER) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return whether the selected columns aggregate the rows to a single one.
+	 */
+	private static boolean hasAggregate(List<Token> tokens, int select, int from) {
+		for (int i = select + 1; i < from - 1; i++) {
+			Token token = tokens.get(i);
+			if (token.getDepth() == 0 && token.getType() == Type.WORD && tokens.get(i + 1).getType() == Type.OPEN
+					&& (AGGREGATE_FUNCTIONS.contains(token.getWord()) || token.getWord().endsWith("agg"))
+					&& !isWindowFunction(tokens, i + 1, from)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isWindowFunction(List<Token> tokens, int open, int from) {
+		int depth = tokens.get(open).getDepth();
+		for (int i = open + 1; i < from; i++) {
+			Token token = tokens.get(i);
+			if (token.getType() == Type.CLOSE && token.getDepth() == depth) {
+				return isFollowedBy(tokens, i, "over");
+			}
 		}
+		return false;
 	}
 
 }
@@ -0,0 +1,122 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+/**
+ * Outcome of a JDBC batched write, the update count of every entity is kept at the same index as the entity.
+ * <p>
+ * Generated identities are already set on the entities when the result is returned.
+ *
+ * @author Jarvis Song
+ */
+public class BatchWriteResult<S> {
+
+	private final List<S> entities;
+
+	private final int[] updateCounts;
+
+	public BatchWriteResult(List<S> entities, int[] updateCounts) {
+		Assert.notNull(entities, "entities must not be null!");
+		Assert.notNull(updateCounts, "updateCounts must not be null!");
+		Assert.isTrue(entities.size() == updateCounts.length, "every entity must have an update count!");
+		this.entities = Collections.unmodifiableList(entities);
+		this.updateCounts = updateCounts;
+	}
+
+	public List<S> getEntities() {
+		return entities;
+	}
+
+	public int[] getUpdateCounts() {
+		return updateCounts.clone();
+	}
+
+	/**
+	 * @return update count of the entity at {@code index}, may be {@link Statement#SUCCESS_NO_INFO} when the driver
+	 *         does not report row counts for batches.
+	 */
+	public int getUpdateCount(int index) {
+		return updateCounts[index];
+	}
+
+	/**
+	 * @return entities whose statement affected no row, e.g. a {@link javax.persistence.Version} check failed. Entities
+	 *         whose update count the driver did not report are not included, see {@link #getUnknownEntities()}.
+	 */
+	public List<S> getUnaffectedEntities() {
+		return getEntities(0);
+	}
+
+	/**
+	 * @return entities whose update count is {@link Statement#SUCCESS_NO_INFO}, whether their statement affected a row
+	 *         is unknown. Drivers like Oracle's report no counts for batches, versioned entities are never left unknown
+	 *         by {@link MybatisRepository#updateAll(Iterable)}.
+	 */
+	public List<S> getUnknownEntities() {
+		return getEntities(Statement.SUCCESS_NO_INFO);
+	}
+
+	public boolean hasUnknownUpdateCounts() {
+		for (int count : updateCounts) {
+			if (count == Statement.SUCCESS_NO_INFO) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private List<S> getEntities(int updateCount) {
+		List<S> result = new ArrayList<>();
+		for (int i = 0; i < updateCounts.length; i++) {
+			if (updateCounts[i] == updateCount) {
+				result.add(entities.get(i));
+			}
+		}
+		return result;
+	}
+
+	public boolean hasUnaffectedEntities() {
+		for (int count : updateCounts) {
+			if (count == 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return sum of the known update counts.
+	 */
+	public long getTotalUpdateCount() {
+		long total = 0;
+		for (int count : updateCounts) {
+			if (count > 0) {
+				total += count;
+			}
+		}
+		return total;
+	}
+}
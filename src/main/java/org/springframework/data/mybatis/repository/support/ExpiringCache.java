@@ -0,0 +1,149 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+/**
+ * a bounded map whose entries expire, split into stripes locked on their own so readers of different keys do not
+ * wait for each other.
+ * <p>
+ * A value read from the database may be outdated by a write that evicted its key while it was read. Take a
+ * {@link #stamp(Object)} before reading and {@link #put(Object, Object, long) put} with it, the value is then dropped
+ * if its key was evicted in between.
+ *
+ * @author Jarvis Song
+ */
+public class ExpiringCache<K, V> {
+
+	private static final int STRIPES = 16;
+
+	private final Stripe<K, V>[] stripes;
+
+	private final long ttlMillis;
+
+	@SuppressWarnings("unchecked")
+	public ExpiringCache(long ttlSeconds, int maxSize) {
+		Assert.isTrue(ttlSeconds > 0, "ttl must be greater than 0!");
+		Assert.isTrue(maxSize > 0, "maxSize must be greater than 0!");
+		this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+		int count = Math.min(STRIPES, maxSize);
+		this.stripes = new Stripe[count];
+		for (int i = 0; i < count; i++) {
+			// the first stripes take the remainder, so all of them together hold maxSize entries.
+			stripes[i] = new Stripe<>(maxSize / count + (i < maxSize % count ? 1 : 0));
+		}
+	}
+
+	/**
+	 * @return the value of {@code key}, {@literal null} if there is none or it expired.
+	 */
+	public V get(K key) {
+		Stripe<K, V> stripe = stripeOf(key);
+		synchronized (stripe) {
+			Entry<V> entry = stripe.entries.get(key);
+			if (null == entry) {
+				return null;
+			}
+			if (entry.expiresAt <= System.currentTimeMillis()) {
+				stripe.entries.remove(key);
+				return null;
+			}
+			return entry.value;
+		}
+	}
+
+	/**
+	 * @return the stamp to {@link #put(Object, Object, long) put} a value of {@code key} read after now.
+	 */
+	public long stamp(K key) {
+		Stripe<K, V> stripe = stripeOf(key);
+		synchronized (stripe) {
+			return stripe.evictions;
+		}
+	}
+
+	/**
+	 * keep {@code value} unless a key of its stripe was evicted since {@code stamp} was taken.
+	 */
+	public void put(K key, V value, long stamp) {
+		Stripe<K, V> stripe = stripeOf(key);
+		synchronized (stripe) {
+			if (stripe.evictions == stamp) {
+				stripe.entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+			}
+		}
+	}
+
+	public void evict(K key) {
+		Stripe<K, V> stripe = stripeOf(key);
+		synchronized (stripe) {
+			stripe.evictions++;
+			stripe.entries.remove(key);
+		}
+	}
+
+	public void clear() {
+		for (Stripe<K, V> stripe : stripes) {
+			synchronized (stripe) {
+				stripe.evictions++;
+				stripe.entries.clear();
+			}
+		}
+	}
+
+	private Stripe<K, V> stripeOf(K key) {
+		int hash = null == key ? 0 : key.hashCode();
+		hash ^= hash >>> 16;
+		return stripes[(hash & Integer.MAX_VALUE) % stripes.length];
+	}
+
+	private static class Stripe<K, V> {
+
+		private final Map<K, Entry<V>> entries;
+
+		private long evictions;
+
+		Stripe(int maxSize) {
+			this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+					return size() > maxSize;
+				}
+			};
+		}
+	}
+
+	private static class Entry<V> {
+
+		private final V value;
+
+		private final long expiresAt;
+
+		Entry(V value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.util.Assert;
+
+/**
+ * reads the ids looked for by concurrent threads in batches, see
+ * {@link org.springframework.data.mybatis.annotations.BatchedFindById}.
+ * <p>
+ * The thread opening a batch leads it: it waits for the window to pass or the batch to fill, then reads all its ids
+ * and hands the entities to the threads waiting for them. A leader with no other lookup running reads at once, so
+ * uncontended lookups do not wait for the window. No thread of its own is started.
+ *
+ * @author Jarvis Song
+ */
+public class FindByIdBatcher<ID, T> {
+
+	private final Function<List<ID>, List<T>> loader;
+
+	private final Function<T, ID> idOf;
+
+	private final long windowNanos;
+
+	private final int maxBatchSize;
+
+	private final Map<ID, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+
+	private final Object lock = new Object();
+
+	// threads inside load
+	private final AtomicInteger running = new AtomicInteger();
+
+	private Batch<ID, T> open;
+
+	/**
+	 * @param loader reads the entities of the ids, missing ones are left out.
+	 * @param idOf tells the id of a read entity.
+	 */
+	public FindByIdBatcher(Function<List<ID>, List<T>> loader, Function<T, ID> idOf, long windowMillis,
+			int maxBatchSize) {
+		Assert.notNull(loader, "loader must not be null!");
+		Assert.notNull(idOf, "idOf must not be null!");
+		Assert.isTrue(windowMillis >= 0, "window must not be negative!");
+		Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be greater than 0!");
+		this.loader = loader;
+		this.idOf = idOf;
+		this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * @return the entity of {@code id}, {@literal null} if there is none. Threads looking for the same id at the same
+	 *         time get the same instance.
+	 */
+	public T load(ID id) {
+		running.incrementAndGet();
+		try {
+			return doLoad(id);
+		}
+		finally {
+			running.decrementAndGet();
+		}
+	}
+
+	private T doLoad(ID id) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		CompletableFuture<T> reading = inFlight.putIfAbsent(id, future);
+		if (null != reading) {
+			return await(reading);
+		}
+
+		Batch<ID, T> batch;
+		boolean leader;
+		synchronized (lock) {
+			leader = null == open;
+			if (leader) {
+				open = new Batch<>();
+			}
+			batch = open;
+			batch.ids.add(id);
+			batch.futures.add(future);
+			if (batch.ids.size() >= maxBatchSize) {
+				open = null;
+				lock.notifyAll();
+			}
+		}
+
+		if (leader) {
+			waitForBatch(batch);
+			read(batch);
+		}
+		return await(future);
+	}
+
+	private void waitForBatch(Batch<ID, T> batch) {
+		long deadline = System.nanoTime() + windowNanos;
+		synchronized (lock) {
+			// alone, no other id could join the batch.
+			long remaining = running.get() > 1 ? windowNanos : 0;
+			while (open == batch && remaining > 0) {
+				try {
+					TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+				remaining = deadline - System.nanoTime();
+			}
+			if (open == batch) {
+				open = null;
+			}
+		}
+	}
+
+	private void read(Batch<ID, T> batch) {
+		Map<ID, T> entities = new HashMap<>();
+		try {
+			for (T entity : loader.apply(batch.ids)) {
+				entities.put(idOf.apply(entity), entity);
+			}
+		}
+		catch (RuntimeException | Error e) {
+			for (int i = 0; i < batch.ids.size(); i++) {
+				inFlight.remove(batch.ids.get(i), batch.futures.get(i));
+				batch.futures.get(i).completeExceptionally(e);
+			}
+			return;
+		}
+		for (int i = 0; i < batch.ids.size(); i++) {
+			// later lookups read the id again rather than getting this result.
+			inFlight.remove(batch.ids.get(i), batch.futures.get(i));
+			batch.futures.get(i).complete(entities.get(batch.ids.get(i)));
+		}
+	}
+
+	private static <T> T await(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new MybatisQueryException("find by id failed.", e.getCause());
+		}
+	}
+
+	private static class Batch<ID, T> {
+
+		private final List<ID> ids = new ArrayList<>();
+
+		private final List<CompletableFuture<T>> futures = new ArrayList<>();
+	}
+}
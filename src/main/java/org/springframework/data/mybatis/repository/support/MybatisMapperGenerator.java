@@ -253,23 +253,7 @@ public class MybatisMapperGenerator {
             }
         } else {
             builder.append("<if test=\"_sorts != null\">");
-            builder.append("<bind name=\"_columnsMap\" value='#{");
-            String[] arr = buildSelectColumns().split(",");
-            for (String s : arr) {
-                if (StringUtils.isEmpty(s)) {
-                    continue;
-                }
-                String[] ss = s.split(" as ");
-                String key = ss[ss.length - 1];
-                String val = ss[0];
-                key = key.replace(String.valueOf(dialect.openQuote()), "").replace(String.valueOf(dialect.closeQuote()), "");
-                val = val.replace("\"", "\\\"");
-                builder.append(String.format("\"%s\":\"%s\",", key, val));
-            }
-            if (builder.charAt(builder.length() - 1) == ',') {
-                builder.deleteCharAt(builder.length() - 1);
-            }
-            builder.append("}' />");
+            buildColumnsMapBinding(builder, "_columnsMap");
             builder.append(" order by ");
             builder.append("<foreach item=\"item\" index=\"idx\" collection=\"_sorts\" open=\"\" separator=\",\" close=\"\">");
             builder.append("<if test=\"item.ignoreCase\">lower(</if>").append("${_columnsMap[item.property]}").append("<if test=\"item.ignoreCase\">)</if>").append(" ${item.direction}");
@@ -278,4 +262,47 @@ public class MybatisMapperGenerator {
         }
         return builder.toString();
     }
+
+    /**
+     * build the keyset condition of keyset pagination, the {@code _keyset} parameter holds the or-ed clauses of
+     * {@link org.springframework.data.mybatis.repository.domain.KeysetPageable#getConditions()}.
+     */
+    public String buildKeysetCondition() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("<if test=\"_keyset != null and _keyset.size() > 0\">");
+        buildColumnsMapBinding(builder, "_keysetColumnsMap");
+        builder.append(" and (");
+        builder.append("<foreach item=\"clause\" collection=\"_keyset\" separator=\" or \">");
+        builder.append("(<foreach item=\"c\" collection=\"clause\" separator=\" and \">");
+        builder.append("${_keysetColumnsMap[c.property]} ${c.operator} #{c.value}");
+        builder.append("</foreach>)");
+        builder.append("</foreach>");
+        builder.append(")");
+        builder.append("</if>");
+        return builder.toString();
+    }
+
+    /**
+     * bind a map of property name to selected column expression, so properties given at runtime can be turned into
+     * columns.
+     */
+    private void buildColumnsMapBinding(StringBuilder builder, String name) {
+        builder.append("<bind name=\"" + name + "\" value='#{");
+        String[] arr = buildSelectColumns().split(",");
+        for (String s : arr) {
+            if (StringUtils.isEmpty(s)) {
+                continue;
+            }
+            String[] ss = s.split(" as ");
+            String key = ss[ss.length - 1];
+            String val = ss[0];
+            key = key.replace(String.valueOf(dialect.openQuote()), "").replace(String.valueOf(dialect.closeQuote()), "");
+            val = val.replace("\"", "\\\"");
+            builder.append(String.format("\"%s\":\"%s\",", key, val));
+        }
+        if (builder.charAt(builder.length() - 1) == ',') {
+            builder.deleteCharAt(builder.length() - 1);
+        }
+        builder.append("}' />");
+    }
 }
@@ -20,9 +20,12 @@ package org.springframework.data.mybatis.repository.support;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mybatis.repository.domain.KeysetPageable;
+import org.springframework.data.mybatis.repository.domain.KeysetSlice;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
@@ -40,12 +43,42 @@ public interface MybatisRepository<T, ID extends Serializable>
 	
 	<S extends T> List<S> insertAll(Iterable<S> entities);
 
+	/**
+	 * insert the entities through one JDBC batch per flush size.
+	 *
+	 * @return entities with their generated identities and the update count of each one.
+	 */
+	<S extends T> BatchWriteResult<S> insertInBatch(Iterable<S> entities);
+
 	<S extends T> S update(S entity);
 
 	<S extends T> S updateIgnoreNull(S entity);
 
+	/**
+	 * update the entities through JDBC batches. Unlike {@link #update(Object)} a failed version check does not stop the
+	 * batch, the stale entities are reported by {@link BatchWriteResult#getUnaffectedEntities()}. Drivers not reporting
+	 * update counts for batches leave them {@link BatchWriteResult#getUnknownEntities() unknown}, versioned entities
+	 * are then updated one by one so that stale ones are still reported.
+	 *
+	 * @throws MybatisNoHintException when the driver did not report the update counts of a batch of versioned
+	 *           entities, their versions were not checked. This happens once, with the first such batch.
+	 */
+	<S extends T> BatchWriteResult<S> updateAll(Iterable<S> entities);
+
+	/**
+	 * same as {@link #updateAll(Iterable)} but null properties are not written.
+	 */
+	<S extends T> BatchWriteResult<S> updateIgnoreNullAll(Iterable<S> entities);
+
 	<S extends T> S saveIgnoreNull(S entity);
 
+	/**
+	 * insert the new entities, then update the others, each through JDBC batches.
+	 *
+	 * @throws UnaffectedEntitiesException when updates affected no row, after all other entities were written.
+	 * @throws MybatisNoHintException when the driver did not report the update counts of a batch of versioned
+	 *           entities, their versions were not checked. Versioned entities are updated one by one from then on.
+	 */
 	@Override
 	<S extends T> List<S> saveAll(Iterable<S> entities);
 
@@ -64,7 +97,32 @@ public interface MybatisRepository<T, ID extends Serializable>
 	@Override
 	<S extends T> List<S> findAll(Example<S> example, Sort sort);
 
+	/**
+	 * pass every entity matching the example to {@code consumer} while the rows are read, no list is built.
+	 */
+	<S extends T> void findAll(Example<S> example, Consumer<? super S> consumer);
+
+	/**
+	 * pass every entity to {@code consumer} in the given order while the rows are read, no list is built.
+	 */
+	void forEach(Sort sort, Consumer<? super T> consumer);
+
+	/**
+	 * read one slice with keyset pagination, continue with {@link KeysetSlice#nextPageable()}.
+	 */
+	KeysetSlice<T> findAll(KeysetPageable pageable);
+
+	<S extends T> KeysetSlice<S> findAll(Example<S> example, KeysetPageable pageable);
+
+	/**
+	 * delete the entities with set based statements, ids are split into chunks the dialect accepts.
+	 */
 	void deleteInBatch(Iterable<T> entities);
+
+	/**
+	 * delete the entities with the given ids with set based statements.
+	 */
+	void deleteAllById(Iterable<? extends ID> ids);
 	
 	<S extends T> int delete(Example<S> example);
 }
@@ -21,7 +21,11 @@ package org.springframework.data.mybatis.repository.support;
 import java.util.Optional;
 
 import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.mybatis.annotations.BatchedFindById;
+import org.springframework.data.mybatis.annotations.EntityCache;
+import org.springframework.data.mybatis.annotations.PageCount;
 import org.springframework.data.mybatis.id.IdentityGeneratorFactory;
 import org.springframework.data.mybatis.mapping.MybatisMappingContext;
 import org.springframework.data.mybatis.repository.dialect.Dialect;
@@ -54,6 +58,8 @@ public class MybatisRepositoryFactory extends RepositoryFactorySupport {
 
 	private AuditorAware<?> auditorAware;
 
+	private int batchFlushSize = SimpleMybatisRepository.DEFAULT_BATCH_FLUSH_SIZE;
+
 	public MybatisRepositoryFactory(final MybatisMappingContext mappingContext,
 			final SqlSessionTemplate sessionTemplate, final Dialect dialect,
 			final IdentityGeneratorFactory<?, ?> identityGeneratorFactory, AuditorAware<?> auditorAware) {
@@ -80,9 +86,35 @@ public class MybatisRepositoryFactory extends RepositoryFactorySupport {
 		new MybatisSimpleRepositoryMapperGenerator(sessionTemplate.getConfiguration(), dialect, mappingContext,
 				information.getDomainType()).generate();
 
-		return getTargetRepositoryViaReflection(information, getEntityInformation(information.getDomainType()),
-				sessionTemplate, identityGeneratorFactory, auditorAware);
+		Object repository = getTargetRepositoryViaReflection(information,
+				getEntityInformation(information.getDomainType()), sessionTemplate, identityGeneratorFactory,
+				auditorAware);
+		if (repository instanceof SimpleMybatisRepository) {
+			((SimpleMybatisRepository<?, ?>) repository).setBatchFlushSize(batchFlushSize);
+			((SimpleMybatisRepository<?, ?>) repository).setInExpressionCountLimit(
+					dialect.getInExpressionCountLimit());
+			((SimpleMybatisRepository<?, ?>) repository).setPageCounter(PageCounter.of(
+					AnnotatedElementUtils.findMergedAnnotation(information.getRepositoryInterface(), PageCount.class)));
+			((SimpleMybatisRepository<?, ?>) repository).setQueryCacheRegistry(
+					QueryCacheRegistry.of(sessionTemplate.getConfiguration()));
+			BatchedFindById batching = AnnotatedElementUtils.findMergedAnnotation(information.getRepositoryInterface(),
+					BatchedFindById.class);
+			if (null != batching) {
+				((SimpleMybatisRepository<?, ?>) repository).setFindByIdBatching(batching.window(),
+						batching.maxBatchSize());
+			}
+			EntityCache entityCache = AnnotatedElementUtils.findMergedAnnotation(information.getDomainType(),
+					EntityCache.class);
+			if (null != entityCache) {
+				((SimpleMybatisRepository<?, ?>) repository).setEntityCache(
+						new ExpiringCache<>(entityCache.ttl(), entityCache.maxSize()));
+			}
+		}
+		return repository;
+	}
 
+	public void setBatchFlushSize(int batchFlushSize) {
+		this.batchFlushSize = batchFlushSize;
 	}
 
 	@Override
@@ -99,7 +131,7 @@ public class MybatisRepositoryFactory extends RepositoryFactorySupport {
 	protected Optional<QueryLookupStrategy> getQueryLookupStrategy(Key key,
 			EvaluationContextProvider evaluationContextProvider) {
 		return Optional.of(MybatisQueryLookupStrategy.create(mappingContext, sessionTemplate, dialect, key,
-				evaluationContextProvider));
+				evaluationContextProvider, QueryCacheRegistry.of(sessionTemplate.getConfiguration())));
 	}
 
 	private boolean isQueryDslExecutor(Class<?> repositoryInterface) {
@@ -50,6 +50,8 @@ public class MybatisRepositoryFactoryBean<T extends Repository<S, ID>, S, ID ext
 
 	private IdentityGeneratorFactory<ID, T> identityGeneratorFactory;
 
+	private int batchFlushSize = SimpleMybatisRepository.DEFAULT_BATCH_FLUSH_SIZE;
+
 	/**
 	 * Creates a new {@link TransactionalRepositoryFactoryBeanSupport} for the
 	 * given repository interface.
@@ -76,7 +78,10 @@ public class MybatisRepositoryFactoryBean<T extends Repository<S, ID>, S, ID ext
 
 	@Override
 	protected RepositoryFactorySupport doCreateRepositoryFactory() {
-		return new MybatisRepositoryFactory(mappingContext, sqlSessionTemplate, dialect, identityGeneratorFactory, auditorAware);
+		MybatisRepositoryFactory factory = new MybatisRepositoryFactory(mappingContext, sqlSessionTemplate, dialect,
+				identityGeneratorFactory, auditorAware);
+		factory.setBatchFlushSize(batchFlushSize);
+		return factory;
 	}
 
 	public void setSqlSessionTemplate(SqlSessionTemplate sqlSessionTemplate) {
@@ -94,4 +99,8 @@ public class MybatisRepositoryFactoryBean<T extends Repository<S, ID>, S, ID ext
 	public void setAuditorAware(AuditorAware<?> auditorAware) {
 		this.auditorAware = auditorAware;
 	}
+
+	public void setBatchFlushSize(int batchFlushSize) {
+		this.batchFlushSize = batchFlushSize;
+	}
 }
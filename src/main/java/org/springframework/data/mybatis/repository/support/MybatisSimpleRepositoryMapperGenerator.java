@@ -18,12 +18,14 @@
 
 package org.springframework.data.mybatis.repository.support;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
 
-import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+
+import org.apache.ibatis.mapping.ResultFlag;
+import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.session.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,11 +53,6 @@ public class MybatisSimpleRepositoryMapperGenerator {
 	private transient static final Logger logger = LoggerFactory.getLogger(
 			MybatisSimpleRepositoryMapperGenerator.class);
 
-	private static final String MAPPER_BEGIN = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" 
-	                                         + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">";
-
-	private static final String MAPPER_END = "</mapper>";
-
 	private final Configuration configuration;
 
 	private final Dialect dialect;
@@ -86,107 +83,90 @@ public class MybatisSimpleRepositoryMapperGenerator {
 			logger.warn("Could not find persistent entity for domain: " + domainClass + " from mapping context.");
 			return;
 		}
-		String xml;
 		String namespace = domainClass.getName();
 		try {
-			xml = render();
-		}
-		catch (IOException e) {
-			throw new MappingException("create auto mapping error for " + namespace, e);
-		}
-		if (logger.isDebugEnabled()) {
-			logger.debug("\n******************* Auto Generate MyBatis Mapping XML (" + namespace + ") *******************\n" + xml);
-		}
-		InputStream inputStream = null;
-		try {
-			inputStream = new ByteArrayInputStream(xml.getBytes("UTF-8"));
-		}
-		catch (UnsupportedEncodingException e) {
-			// ignore
-		}
-		String resource = namespace + "_auto_generate.xml";
-		try {
-			XMLMapperBuilder xmlMapperBuilder = new XMLMapperBuilder(inputStream, configuration, resource,
-					configuration.getSqlFragments(), namespace);
-			xmlMapperBuilder.parse();
+			register(new MybatisStatementRegister(configuration, namespace, namespace + "_auto_generate"));
 		}
 		catch (Exception e) {
 			throw new MappingException("create auto mapping error for " + namespace, e);
 		}
-		finally {
-			try {
-				inputStream.close();
-			}
-			catch (IOException e) {
-				logger.error(e.getMessage(), e);
-			}
-		}
 	}
 
-	private String render() throws IOException {
-
-		StringBuilder builder = new StringBuilder();
-		builder.append(MAPPER_BEGIN);
-
-		builder.append("<mapper namespace=\"" + domainClass.getName() + "\">");
+	private void register(MybatisStatementRegister register) {
 
 		if (!isFragmentExist("TABLE_NAME")) {
-			builder.append("<sql id=\"TABLE_NAME\">" + dialect.wrapTableName(persistentEntity.getTableName()) + "</sql>");
+			register.addSqlFragment("TABLE_NAME", dialect.wrapTableName(persistentEntity.getTableName()));
 		}
-		
+
 		if (!isFragmentExist("_EXAMPLE")) {
-			builder.append("<sql id=\"_EXAMPLE\">" + buildExample() + "</sql>");
+			register.addSqlFragment("_EXAMPLE", buildExample());
 		}
 
 		if (!isResultMapExist("ResultMap")) {
-			buildResultMap(builder);
+			buildResultMap(register);
 		}
 		if (!isStatementExist("_insert")) {
-			buildInsertSQL(builder);
+			MybatisPersistentProperty identity = persistentEntity.getIdProperty();
+			if (null != identity && isIdentity(identity)) {
+				// the database generates the id, read it back into the entity.
+				register.addInsert("_insert", buildInsertSQL(), domainClass, identity.getName(), identity.getColumnName());
+			}
+			else {
+				register.addInsert("_insert", buildInsertSQL(), domainClass);
+			}
 		}
-		if (!isStatementExist("_update")) {
-			buildUpdateSQL(builder, "_update", false);
+		if (persistentEntity.hasIdProperty() && !isStatementExist("_update")) {
+			register.addUpdate("_update", buildUpdateSQL(false), domainClass);
 		}
-		if (!isStatementExist("_updateIgnoreNull")) {
-			buildUpdateSQL(builder, "_updateIgnoreNull", true);
+		if (persistentEntity.hasIdProperty() && !isStatementExist("_updateIgnoreNull")) {
+			register.addUpdate("_updateIgnoreNull", buildUpdateSQL(true), domainClass);
 		}
 		if (!isStatementExist("_findById")) {
-			buildFindById(builder);
+			register.addSelect("_findById", buildFindById(), "ResultMap", null);
 		}
 		if (!isStatementExist("_findAll")) {
-			buildFindAll(builder);
+			register.addSelect("_findAll", buildFindAll(), "ResultMap", null);
+		}
+		if (!isStatementExist("_findAllStream")) {
+			// rows passed to a result handler are not collected, the driver should not buffer them either.
+			register.addSelect("_findAllStream", buildFindAll(), "ResultMap", null, dialect.getStreamFetchSize());
 		}
 
 		if (!isStatementExist("_count")) {
-			buildCount(builder);
+			register.addSelect("_count", buildCount(), null, Long.class);
+		}
+		if (persistentEntity.hasIdProperty() && !isStatementExist("_deleteById")) {
+			register.addDelete("_deleteById", buildDeleteById(), domainClass);
 		}
-		if (!isStatementExist("_deleteById")) {
-			buildDeleteById(builder);
+		if (persistentEntity.hasIdProperty() && !isStatementExist("_deleteByIds")) {
+			register.addDelete("_deleteByIds", buildDeleteByIds(), null);
 		}
 		if (!isStatementExist("_deleteAll")) {
-			buildDeleteAll(builder);
+			register.addDelete("_deleteAll", buildDeleteAll(), null);
 		}
 		if (!isStatementExist("_findByPager")) {
-			buildFindByPager(builder);
+			register.addSelect("_findByPager", buildFindByPager(false), "ResultMap", null);
+		}
+		if (dialect.getLimitHandler().supportsWindowCount() && !isStatementExist("_findByPagerWindow")) {
+			register.addSelect("_findByPagerWindow", buildFindByPager(true), "ResultMap", null);
+		}
+		if (!isStatementExist("_findByKeyset")) {
+			register.addSelect("_findByKeyset", buildFindByKeyset(), "ResultMap", null);
+		}
+		String estimatedCount = dialect.getEstimatedCountSql(persistentEntity.getTableName());
+		if (null != estimatedCount && !isStatementExist("_estimateCount")) {
+			register.addSelect("_estimateCount", estimatedCount, null, Long.class);
 		}
 		if (!isStatementExist("_countByExample")) {
-			buildCountByExample(builder);
+			register.addSelect("_countByExample", buildCountByExample(), null, Long.class);
 		}
 		if (!isStatementExist("_deleteByExample")) {
-			buildDeleteByExample(builder);
+			register.addDelete("_deleteByExample", buildDeleteByExample(), null);
 		}
-		builder.append(MAPPER_END);
-		String result = builder.toString();
-
-		return result;
 	}
 
-	private void buildUpdateSQL(final StringBuilder builder, String statementName, final boolean ignoreNull) {
-		if (!persistentEntity.hasIdProperty()) {
-			return;
-		}
-		builder.append(
-				"<update id=\"" + statementName + "\" parameterType=\"" + domainClass.getName() + "\" lang=\"XML\">");
+	private String buildUpdateSQL(final boolean ignoreNull) {
+		final StringBuilder builder = new StringBuilder();
 		builder.append("update ").append(dialect.wrapTableName(persistentEntity.getTableName()));
 		builder.append("<set>");
 
@@ -279,11 +259,11 @@ public class MybatisSimpleRepositoryMapperGenerator {
 		}
 
 		builder.append("</trim>");
-		builder.append("</update>");
+		return builder.toString();
 	}
 
-	private void buildDeleteByExample(StringBuilder builder) {
-		builder.append("<delete id=\"_deleteByExample\" lang=\"XML\">");
+	private String buildDeleteByExample() {
+		StringBuilder builder = new StringBuilder();
 		builder.append("delete");
 		if (dialect.supportsDeleteAlias()) {
 			builder.append(" ").append(quota(persistentEntity.getEntityName()));
@@ -295,17 +275,17 @@ public class MybatisSimpleRepositoryMapperGenerator {
 		builder.append("<include refid=\"_EXAMPLE\" />");
 		builder.append("</trim>");
 		builder.append("</if>");
-		builder.append("</delete>");
+		return builder.toString();
 	}
 
-	private void buildFindById(final StringBuilder builder) {
-		builder.append("<select id=\"_findById\" resultMap=\"ResultMap\" lang=\"XML\">");
+	private String buildFindById() {
+		StringBuilder builder = new StringBuilder();
 		builder.append("select ").append(generator.buildSelectColumns()).append(" from ").append(generator.buildFrom());
 
 		builder.append("<trim prefix=\" where \" prefixOverrides=\"and |or \">");
 		buildByIdCaluse(builder);
 		builder.append("</trim>");
-		builder.append("</select>");
+		return builder.toString();
 	}
 
 	private void buildByIdCaluse(final StringBuilder builder) {
@@ -333,29 +313,37 @@ public class MybatisSimpleRepositoryMapperGenerator {
 		}
 	}
 
-	private void buildFindByPager(StringBuilder builder) {
-		builder.append("<select id=\"_findByPager\" resultMap=\"ResultMap\" lang=\"XML\">");
+	private String buildFindByPager(boolean withTotal) {
 		StringBuilder example = new StringBuilder();
 		example.append("<if test=\"_example != null\">");
 		example.append("<trim prefix=\" where \" prefixOverrides=\"and |or \">");
 		example.append("<include refid=\"_EXAMPLE\" />");
 		example.append("</trim>");
 		example.append("</if>");
-		builder.append(dialect.getLimitHandler().processSql(generator.buildSelectColumns(), " from " + generator.buildFrom(), example.toString(), generator.buildSorts(null)));
-		builder.append("</select>");
+		if (withTotal) {
+			return dialect.getLimitHandler().processSqlWithTotal(generator.buildSelectColumns(),
+					" from " + generator.buildFrom(), example.toString(), generator.buildSorts(null));
+		}
+		return dialect.getLimitHandler().processSql(generator.buildSelectColumns(), " from " + generator.buildFrom(), example.toString(), generator.buildSorts(null));
 	}
 
-	private void buildDeleteAll(StringBuilder builder) {
-		builder.append("<delete id=\"_deleteAll\">truncate table "
-				+ dialect.wrapTableName(persistentEntity.getTableName()) + " </delete>");
+	private String buildFindByKeyset() {
+		StringBuilder condition = new StringBuilder();
+		condition.append("<trim prefix=\" where \" prefixOverrides=\"and |or \">");
+		condition.append("<if test=\"_example != null\">");
+		condition.append("<include refid=\"_EXAMPLE\" />");
+		condition.append("</if>");
+		condition.append(generator.buildKeysetCondition());
+		condition.append("</trim>");
+		return dialect.getLimitHandler().processSql(generator.buildSelectColumns(), " from " + generator.buildFrom(), condition.toString(), generator.buildSorts(null));
 	}
 
-	private void buildDeleteById(final StringBuilder builder) {
-		if (!persistentEntity.hasIdProperty()) {
-			return;
-		}
-		builder.append("<delete id=\"_deleteById\" parameterType=\"" + domainClass.getName() + "\" lang=\"XML\">");
+	private String buildDeleteAll() {
+		return "truncate table " + dialect.wrapTableName(persistentEntity.getTableName());
+	}
 
+	private String buildDeleteById() {
+		final StringBuilder builder = new StringBuilder();
 		builder.append("delete");
 		if (dialect.supportsDeleteAlias()) {
 			builder.append(" ").append(quota(persistentEntity.getEntityName()));
@@ -384,20 +372,56 @@ public class MybatisSimpleRepositoryMapperGenerator {
 		}
 
 		builder.append("</trim>");
-		builder.append("</delete>");
+		return builder.toString();
 	}
 
-	private void buildCount(StringBuilder builder) {
-		builder.append("<select id=\"_count\" resultType=\"long\" lang=\"XML\">");
-		builder.append("select count(*) from ");
-		builder.append(generator.buildFrom());
-		builder.append("</select>");
+	private String buildDeleteByIds() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("delete");
+		if (dialect.supportsDeleteAlias()) {
+			builder.append(" ").append(quota(persistentEntity.getEntityName()));
+		}
+		builder.append(" from ").append(generator.buildFrom()).append(" where ");
+
+		final MybatisPersistentProperty idProperty = persistentEntity.getIdProperty();
+		if (idProperty.isCompositeId()) {
+			// (c1=? and c2=?) or (c1=? and c2=?) works on every database, row value IN lists do not.
+			builder.append(
+					"<foreach item=\"item\" index=\"index\" collection=\"_ids\" open=\"(\" separator=\" or \" close=\")\">");
+			builder.append("(");
+			MybatisPersistentEntityImpl<?> idEntity = context.getPersistentEntity(idProperty.getActualType());
+			if (null != idEntity) {
+				final StringBuilder tuple = new StringBuilder();
+				idEntity.doWithProperties(new PropertyHandler<MybatisPersistentProperty>() {
 
+					@Override
+					public void doWithPersistentProperty(MybatisPersistentProperty property) {
+						if (tuple.length() > 0) {
+							tuple.append(" and ");
+						}
+						tuple.append(dialect.wrapColumnName(property.getColumnName())).append(
+								"=#{item." + property.getName() + "}");
+					}
+				});
+				builder.append(tuple);
+			}
+			builder.append(")");
+			builder.append("</foreach>");
+		}
+		else {
+			builder.append(dialect.wrapColumnName(idProperty.getColumnName())).append(" in ");
+			builder.append(
+					"<foreach item=\"item\" index=\"index\" collection=\"_ids\" open=\"(\" separator=\",\" close=\")\">#{item}</foreach>");
+		}
+		return builder.toString();
 	}
 
-	private void buildCountByExample(StringBuilder builder) {
-		builder.append("<select id=\"_countByExample\" resultType=\"long\" lang=\"XML\">");
+	private String buildCount() {
+		return "select count(*) from " + generator.buildFrom();
+	}
 
+	private String buildCountByExample() {
+		StringBuilder builder = new StringBuilder();
 		builder.append("select count(*) from ").append(generator.buildFrom());
 
 		builder.append("<if test=\"_example != null\">");
@@ -405,8 +429,7 @@ public class MybatisSimpleRepositoryMapperGenerator {
 		builder.append("<include refid=\"_EXAMPLE\" />");
 		builder.append("</trim>");
 		builder.append("</if>");
-
-		builder.append("</select>");
+		return builder.toString();
 	}
 
 	private String buildExample() {
@@ -423,8 +446,8 @@ public class MybatisSimpleRepositoryMapperGenerator {
 
     }
 
-	private void buildFindAll(StringBuilder builder) {
-		builder.append("<select id=\"_findAll\" resultMap=\"ResultMap\" lang=\"XML\">");
+	private String buildFindAll() {
+		StringBuilder builder = new StringBuilder();
 		builder.append("select ").append(generator.buildSelectColumns()).append(" from ").append(generator.buildFrom());
 
 		builder.append("<if test=\"_example != null\">");
@@ -447,14 +470,22 @@ public class MybatisSimpleRepositoryMapperGenerator {
 			builder.append("</if>");
 		}
 		builder.append(generator.buildSorts(null));
-
-		builder.append("</select>");
+		return builder.toString();
 	}
 
-	private void buildInsertSQL(final StringBuilder builder) {
-		builder.append("<insert id=\"_insert\" parameterType=\"" + domainClass.getName() + "\" lang=\"XML\">");
-		builder.append("<![CDATA[");
+	/**
+	 * @return whether {@code property} is an id generated by an identity column of the database.
+	 */
+	private boolean isIdentity(MybatisPersistentProperty property) {
+		if (!property.isIdProperty() || property.isCompositeId()) {
+			return false;
+		}
+		GeneratedValue generatedValue = property.findAnnotation(GeneratedValue.class);
+		return null != generatedValue && generatedValue.strategy() == GenerationType.IDENTITY;
+	}
 
+	private String buildInsertSQL() {
+		final StringBuilder builder = new StringBuilder();
 		builder.append("insert into ").append(dialect.wrapTableName(persistentEntity.getTableName())).append("(");
 
 		persistentEntity.doWithProperties(new SimplePropertyHandler() {
@@ -462,6 +493,9 @@ public class MybatisSimpleRepositoryMapperGenerator {
 			@Override
 			public void doWithPersistentProperty(PersistentProperty<?> pp) {
 				MybatisPersistentProperty property = (MybatisPersistentProperty) pp;
+				if (isIdentity(property)) {
+					return;
+				}
 				builder.append(dialect.wrapColumnName(property.getColumnName())).append(",");
 			}
 		});
@@ -498,6 +532,9 @@ public class MybatisSimpleRepositoryMapperGenerator {
 			@Override
 			public void doWithPersistentProperty(PersistentProperty<?> pp) {
 				MybatisPersistentProperty property = (MybatisPersistentProperty) pp;
+				if (isIdentity(property)) {
+					return;
+				}
 				builder.append("#{").append(property.getName()).append(",jdbcType=").append(property.getJdbcType());
 				if (null != property.getSpecifiedTypeHandler()) {
 					builder.append(",typeHandler=").append(property.getSpecifiedTypeHandler().getName());
@@ -531,13 +568,12 @@ public class MybatisSimpleRepositoryMapperGenerator {
 			builder.deleteCharAt(builder.length() - 1);
 		}
 
-		builder.append(")]]>");
-
-		builder.append("</insert>");
+		builder.append(")");
+		return builder.toString();
 	}
 
-	private void buildInnerResultMapId(final StringBuilder builder, final MybatisPersistentProperty idProperty,
-			final String prefix) {
+	private void buildInnerResultMapId(final MybatisStatementRegister register, final List<ResultMapping> mappings,
+			final MybatisPersistentProperty idProperty, final String prefix) {
 
 		if (null != idProperty) {
 			if (idProperty.isCompositeId()) {
@@ -549,32 +585,29 @@ public class MybatisSimpleRepositoryMapperGenerator {
 						@Override
 						public void doWithPersistentProperty(PersistentProperty<?> pp) {
 							MybatisPersistentProperty property = (MybatisPersistentProperty) pp;
-							builder.append(String.format(
-									"<id property=\"%s\" column=\"%s\" javaType=\"%s\" jdbcType=\"%s\"/>",
+							mappings.add(register.buildResultMapping(domainClass,
 									idProperty.getName() + "." + property.getName(), alias(prefix + property.getName()),
-									property.getActualType().getName(), property.getJdbcType()));
+									property.getActualType(), property.getJdbcType(), null, ResultFlag.ID));
 						}
 					});
 				}
 
 			}
 			else {
-				builder.append(String.format("<id property=\"%s\" column=\"%s\" javaType=\"%s\" jdbcType=\"%s\"/>",
-						idProperty.getName(), alias(prefix + idProperty.getName()),
-						idProperty.getActualType().getName(), idProperty.getJdbcType()));
+				mappings.add(register.buildResultMapping(domainClass, idProperty.getName(),
+						alias(prefix + idProperty.getName()), idProperty.getActualType(), idProperty.getJdbcType(), null,
+						ResultFlag.ID));
 			}
 		}
 	}
 
-	private void buildInnerResultMap(final StringBuilder builder, final MybatisPersistentEntity<?> persistentEntity,
-			final String prefix) {
+	private void buildInnerResultMap(final MybatisStatementRegister register, final List<ResultMapping> mappings,
+			final MybatisPersistentEntity<?> persistentEntity, final String prefix) {
 
-		final StringBuilder constructorBuilder = new StringBuilder();
-		final StringBuilder resultBuilder = new StringBuilder();
+		final List<ResultMapping> resultMappings = new ArrayList<>();
 
 		PreferredConstructor<?, MybatisPersistentProperty> persistenceConstructor = persistentEntity.getPersistenceConstructor();
 		if (null != persistenceConstructor && persistenceConstructor.hasParameters()) {
-			constructorBuilder.append("<constructor>");
 
 			for (PreferredConstructor.Parameter<Object, MybatisPersistentProperty> parameter : persistenceConstructor.getParameters()) {
 				MybatisPersistentProperty property = persistentEntity.getPersistentProperty(parameter.getName());
@@ -589,33 +622,25 @@ public class MybatisSimpleRepositoryMapperGenerator {
 									@Override
 									public void doWithPersistentProperty(PersistentProperty<?> pp) {
 										MybatisPersistentProperty property = (MybatisPersistentProperty) pp;
-										constructorBuilder.append(
-												String.format("<idArg column=\"%s\" javaType=\"%s\" jdbcType=\"%s\"/>",
-														alias(prefix + property.getName()),
-														property.getActualType().getName(), property.getJdbcType()));
+										mappings.add(register.buildResultMapping(domainClass, null,
+												alias(prefix + property.getName()), property.getActualType(),
+												property.getJdbcType(), null, ResultFlag.CONSTRUCTOR, ResultFlag.ID));
 									}
 								});
 							}
 						}
 						else {
-							constructorBuilder.append(
-									String.format("<idArg column=\"%s\" javaType=\"%s\" jdbcType=\"%s\"/>",
-											alias(prefix + property.getName()), property.getActualType().getName(),
-											property.getJdbcType()));
+							mappings.add(register.buildResultMapping(domainClass, null,
+									alias(prefix + property.getName()), property.getActualType(),
+									property.getJdbcType(), null, ResultFlag.CONSTRUCTOR, ResultFlag.ID));
 						}
 					}
 					else {
-						constructorBuilder.append(String.format("<arg column=\"%s\" javaType=\"%s\" jdbcType=\"%s\"/>",
-								alias(prefix + property.getName()), property.getActualType().getName(),
-								property.getJdbcType()));
+						mappings.add(register.buildResultMapping(domainClass, null, alias(prefix + property.getName()),
+								property.getActualType(), property.getJdbcType(), null, ResultFlag.CONSTRUCTOR));
 					}
 				}
-				else {
-
-				}
 			}
-
-			constructorBuilder.append("</constructor>");
 		}
 
 		persistentEntity.doWithProperties(new SimplePropertyHandler() {
@@ -628,31 +653,24 @@ public class MybatisSimpleRepositoryMapperGenerator {
 				}
 
 				if (property.isIdProperty()) {
-					buildInnerResultMapId(resultBuilder, property, prefix);
+					buildInnerResultMapId(register, resultMappings, property, prefix);
 					return;
 				}
-				resultBuilder.append(
-						String.format(
-								"<result property=\"%s\" column=\"%s\" javaType=\"%s\" jdbcType=\"%s\""
-										+ (null != property.getSpecifiedTypeHandler()
-												? (" typeHandler=\"" + property.getSpecifiedTypeHandler().getName()
-														+ "\"")
-												: "")
-										+ " />",
-								property.getName(), alias(prefix + property.getName()),
-								property.getActualType().getName(), property.getJdbcType()));
+				resultMappings.add(register.buildResultMapping(domainClass, property.getName(),
+						alias(prefix + property.getName()), property.getActualType(), property.getJdbcType(),
+						property.getSpecifiedTypeHandler()));
 			}
 		});
 
-		builder.append(constructorBuilder).append(resultBuilder);
+		mappings.addAll(resultMappings);
 	}
 
-	private void buildResultMap(final StringBuilder builder) {
-		builder.append("<resultMap id=\"ResultMap\" type=\"" + domainClass.getName() + "\">");
+	private void buildResultMap(MybatisStatementRegister register) {
+		List<ResultMapping> mappings = new ArrayList<>();
 
-		buildInnerResultMap(builder, persistentEntity, "");
+		buildInnerResultMap(register, mappings, persistentEntity, "");
 
-		builder.append("</resultMap>");
+		register.addResultMap("ResultMap", domainClass, mappings);
 	}
 
 	private String alias(String column) {
@@ -672,7 +690,9 @@ public class MybatisSimpleRepositoryMapperGenerator {
 		if (null == configuration) {
 			return false;
 		}
-		return configuration.hasResultMap(domainClass.getName() + "." + name);
+		synchronized (configuration) {
+			return configuration.hasResultMap(domainClass.getName() + "." + name);
+		}
 	}
 
 	/**
@@ -682,7 +702,9 @@ public class MybatisSimpleRepositoryMapperGenerator {
 		if (null == configuration) {
 			return false;
 		}
-		return configuration.getSqlFragments().containsKey(domainClass.getName() + "." + fragment);
+		synchronized (configuration) {
+			return configuration.getSqlFragments().containsKey(domainClass.getName() + "." + fragment);
+		}
 	}
 
 	/**
@@ -692,6 +714,8 @@ public class MybatisSimpleRepositoryMapperGenerator {
 		if (null == configuration) {
 			return false;
 		}
-		return configuration.hasStatement(domainClass.getName() + "." + id);
+		synchronized (configuration) {
+			return configuration.hasStatement(domainClass.getName() + "." + id);
+		}
 	}
 }
@@ -0,0 +1,170 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.builder.xml.XMLIncludeTransformer;
+import org.apache.ibatis.builder.xml.XMLMapperEntityResolver;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.ResultFlag;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.parsing.XPathParser;
+import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * register generated statements, result maps and sql fragments of one namespace straight into the mybatis
+ * {@link Configuration}.
+ * <p>
+ * No mapper document is rendered and DTD validated for them: plain SQL becomes a raw {@link SqlSource} directly, only
+ * statements using dynamic elements ({@code <if>}, {@code <foreach>}, {@code <include>} ...) have their body parsed
+ * into a script node.
+ * <p>
+ * Everything that reads or writes the {@link Configuration} is done while holding its monitor, so registers of
+ * different entities may run on several threads at once.
+ *
+ * @author Jarvis Song
+ */
+public class MybatisStatementRegister {
+
+	private transient static final Logger logger = LoggerFactory.getLogger(MybatisStatementRegister.class);
+
+	private static final String SCRIPT_BEGIN = "<script>";
+
+	private static final String SCRIPT_END = "</script>";
+
+	private static final String INCLUDE = "<include";
+
+	private final Configuration configuration;
+
+	private final MapperBuilderAssistant assistant;
+
+	private final LanguageDriver languageDriver;
+
+	public MybatisStatementRegister(Configuration configuration, String namespace, String resource) {
+		this.configuration = configuration;
+		this.assistant = new MapperBuilderAssistant(configuration, resource);
+		this.assistant.setCurrentNamespace(namespace);
+		this.languageDriver = configuration.getLanguageRegistry().getDriver(XMLLanguageDriver.class);
+	}
+
+	public Configuration getConfiguration() {
+		return configuration;
+	}
+
+	/**
+	 * register a {@code <sql>} fragment which user mappers may include.
+	 */
+	public void addSqlFragment(String id, String content) {
+		XNode node = parse("<sql id=\"" + id + "\">" + content + "</sql>").evalNode("/sql");
+		synchronized (configuration) {
+			configuration.getSqlFragments().put(assistant.applyCurrentNamespace(id, false), node);
+		}
+	}
+
+	public ResultMapping buildResultMapping(Class<?> resultType, String property, String column, Class<?> javaType,
+			JdbcType jdbcType, Class<? extends TypeHandler<?>> typeHandler, ResultFlag... flags) {
+		List<ResultFlag> flagList = Arrays.asList(flags);
+		synchronized (configuration) {
+			// type handler lookups may populate the registry.
+			return assistant.buildResultMapping(resultType, property, column, javaType, jdbcType, null, null, null,
+					null, typeHandler, flagList, null, null, false);
+		}
+	}
+
+	public void addResultMap(String id, Class<?> type, List<ResultMapping> resultMappings) {
+		synchronized (configuration) {
+			assistant.addResultMap(id, type, null, null, resultMappings, null);
+		}
+	}
+
+	public void addSelect(String id, String script, String resultMap, Class<?> resultType) {
+		addSelect(id, script, resultMap, resultType, null);
+	}
+
+	public void addSelect(String id, String script, String resultMap, Class<?> resultType, Integer fetchSize) {
+		addStatement(id, SqlCommandType.SELECT, script, null, resultMap, resultType, fetchSize, null, null);
+	}
+
+	public void addInsert(String id, String script, Class<?> parameterType) {
+		addStatement(id, SqlCommandType.INSERT, script, parameterType, null, null, null, null, null);
+	}
+
+	/**
+	 * register an insert reading the key generated by the database into {@code keyProperty}, in batches too.
+	 */
+	public void addInsert(String id, String script, Class<?> parameterType, String keyProperty, String keyColumn) {
+		addStatement(id, SqlCommandType.INSERT, script, parameterType, null, null, null, keyProperty, keyColumn);
+	}
+
+	public void addUpdate(String id, String script, Class<?> parameterType) {
+		addStatement(id, SqlCommandType.UPDATE, script, parameterType, null, null, null, null, null);
+	}
+
+	public void addDelete(String id, String script, Class<?> parameterType) {
+		addStatement(id, SqlCommandType.DELETE, script, parameterType, null, null, null, null, null);
+	}
+
+	private void addStatement(String id, SqlCommandType commandType, String script, Class<?> parameterType,
+			String resultMap, Class<?> resultType, Integer fetchSize, String keyProperty, String keyColumn) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Auto Generate MyBatis Statement (" + assistant.applyCurrentNamespace(id, false) + "): "
+					+ script);
+		}
+		boolean select = commandType == SqlCommandType.SELECT;
+		KeyGenerator keyGenerator = commandType == SqlCommandType.INSERT
+				&& (null != keyProperty || configuration.isUseGeneratedKeys()) ? Jdbc3KeyGenerator.INSTANCE
+				: NoKeyGenerator.INSTANCE;
+		// plain sql has nothing to parse.
+		XNode node = script.indexOf('<') < 0 ? null : parse(SCRIPT_BEGIN + script + SCRIPT_END).evalNode("/script");
+		synchronized (configuration) {
+			assistant.addMappedStatement(id, createSqlSource(script, node, parameterType), StatementType.PREPARED,
+					commandType, fetchSize, null, null, parameterType, resultMap, resultType, null, !select, select, false,
+					keyGenerator, keyProperty, keyColumn, null, languageDriver, null);
+		}
+	}
+
+	private SqlSource createSqlSource(String script, XNode node, Class<?> parameterType) {
+		if (null == node) {
+			return languageDriver.createSqlSource(configuration, script, parameterType);
+		}
+		if (script.contains(INCLUDE)) {
+			new XMLIncludeTransformer(configuration, assistant).applyIncludes(node.getNode());
+		}
+		return languageDriver.createSqlSource(configuration, node, parameterType);
+	}
+
+	private XPathParser parse(String xml) {
+		return new XPathParser(xml, false, configuration.getVariables(), new XMLMapperEntityResolver());
+	}
+}
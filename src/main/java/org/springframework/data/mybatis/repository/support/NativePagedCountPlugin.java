@@ -45,7 +45,8 @@ public class NativePagedCountPlugin implements Interceptor {
 
 	@Override
 	public Object intercept(Invocation invocation) throws Throwable {
-		if (NativePagedQueryPlugin.isNativePagedCountQuery()) {
+		NativePagedRowBounds rowBounds = NativePagedRowBounds.of((StatementHandler) invocation.getTarget());
+		if (null != rowBounds && rowBounds.isCount()) {
 			PreparedStatement statement = (PreparedStatement) invocation.getArgs()[0];
 			statement.execute();
 			ResultSet rs = statement.getResultSet();
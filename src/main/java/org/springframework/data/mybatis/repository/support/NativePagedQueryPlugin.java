@@ -23,64 +23,100 @@
 
 package org.springframework.data.mybatis.repository.support;
 
+import java.lang.reflect.Field;
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.plugin.Intercepts;
 import org.apache.ibatis.plugin.Invocation;
 import org.apache.ibatis.plugin.Plugin;
 import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
 import org.springframework.data.mybatis.repository.dialect.Dialect;
 import org.springframework.data.mybatis.repository.query.QueryUtils;
+import org.springframework.util.Assert;
 import org.springframework.util.ReflectionUtils;
 
 @Intercepts({
-	@Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class, Integer.class }) })
+	@Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class, Integer.class }),
+	@Signature(type = Executor.class, method = "query",
+			args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }) })
 public class NativePagedQueryPlugin implements Interceptor {
 
-	private static final ThreadLocal<Boolean> nativePagedQueryFlag = new ThreadLocal<>();
+	/**
+	 * parameters holding the page values, whichever of them the dialect binds.
+	 */
+	private static final String[] PAGE_PARAMETERS = { "offset", "pageSize", "offsetEnd" };
 
-	private static final ThreadLocal<Boolean> nativePagedCountQueryFlag = new ThreadLocal<>();
+	private static final int MAX_CACHED_SQL = 512;
 
-	private static final ThreadLocal<Dialect> currentDialect = new ThreadLocal<>();
+	private static final Field BOUND_SQL_FIELD = ReflectionUtils.findField(BoundSql.class, "sql");
 
-	public static void startNativePagedQuery(Dialect dialect) {
-		nativePagedQueryFlag.set(true);
-		currentDialect.set(dialect);
-	}
-
-	public static void startNativePagedCountQuery() {
-		nativePagedCountQueryFlag.set(true);
-	}
+	private static final Field PARAMETER_MAPPINGS_FIELD = ReflectionUtils.findField(BoundSql.class,
+			"parameterMappings");
 
-	public static void endNativePagedQuery() {
-		nativePagedQueryFlag.remove();
-		currentDialect.remove();
+	static {
+		ReflectionUtils.makeAccessible(BOUND_SQL_FIELD);
+		ReflectionUtils.makeAccessible(PARAMETER_MAPPINGS_FIELD);
 	}
 
-	public static void endNativePagedCountQuery() {
-		nativePagedCountQueryFlag.remove();
-	}
+	/**
+	 * rewritten sql by statement id and raw sql, least recently used entries are dropped first.
+	 */
+	private static final Map<List<Object>, RewrittenSql> REWRITTEN_SQL = new LinkedHashMap<List<Object>, RewrittenSql>(
+			64, 0.75f, true) {
 
-	public static boolean isNativePagedCountQuery() {
-		return nativePagedCountQueryFlag.get() != null;
-	}
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<List<Object>, RewrittenSql> eldest) {
+			return size() > MAX_CACHED_SQL;
+		}
+	};
 
 	@Override
 	public Object intercept(Invocation invocation) throws Throwable {
-		if (isNativePagedQuery()) {
-			StatementHandler statementHandler = (StatementHandler) invocation.getTarget();
-			@SuppressWarnings("unchecked")
-			Map<String, Object> parameter = (Map<String, Object>) statementHandler.getBoundSql().getParameterObject();
-			String rawSql = statementHandler.getBoundSql().getSql();
-			String sql = nativePagedQueryFlag.get() != null ? processPagedSql(rawSql, parameter)
-					: processPagedCountSql(rawSql);
-			org.springframework.data.util.ReflectionUtils.setField(ReflectionUtils.findField(BoundSql.class, "sql"),
-					statementHandler.getBoundSql(), sql);
+		if (invocation.getTarget() instanceof Executor) {
+			return query(invocation);
+		}
+		StatementHandler statementHandler = (StatementHandler) invocation.getTarget();
+		NativePagedRowBounds rowBounds = NativePagedRowBounds.of(statementHandler);
+		if (null != rowBounds) {
+			BoundSql boundSql = statementHandler.getBoundSql();
+			boolean paged = !rowBounds.isCount();
+			String rawSql = boundSql.getSql();
+			MappedStatement mappedStatement = NativePagedRowBounds.getMappedStatement(statementHandler);
+			List<Object> key = Arrays.asList(null == mappedStatement ? null : mappedStatement.getId(), rawSql,
+					paged ? rowBounds.getDialect().getClass() : null);
+			RewrittenSql rewritten;
+			synchronized (REWRITTEN_SQL) {
+				rewritten = REWRITTEN_SQL.get(key);
+			}
+			if (null == rewritten) {
+				rewritten = paged ? processPagedSql(rowBounds.getDialect(), rawSql)
+						: new RewrittenSql(processPagedCountSql(rawSql));
+				synchronized (REWRITTEN_SQL) {
+					REWRITTEN_SQL.put(key, rewritten);
+				}
+			}
+			ReflectionUtils.setField(BOUND_SQL_FIELD, boundSql, rewritten.sql);
+			if (!rewritten.parameters.isEmpty()) {
+				bindPageParameters(boundSql, mappedStatement, rewritten.parameters);
+			}
 			return invocation.proceed();
 		}
 		else {
@@ -89,17 +125,74 @@ public class NativePagedQueryPlugin implements Interceptor {
 		}
 	}
 
-	private String processPagedSql(String sql, Map<String, Object> parameter) {
-		return currentDialect.get().getLimitHandler().processSql(sql, (Integer) parameter.get("pageSize"),
-				(Long) parameter.get("offset"), (Long) parameter.get("offsetEnd"));
+	/**
+	 * the page values are bound when the statement is prepared, after the executor made the cache key of the query,
+	 * add them to the key so pages of the same statement are not taken for each other.
+	 */
+	private Object query(Invocation invocation) throws SQLException {
+		Object[] args = invocation.getArgs();
+		if (!(args[2] instanceof NativePagedRowBounds) || ((NativePagedRowBounds) args[2]).isCount()) {
+			return invocation.proceed();
+		}
+		Executor executor = (Executor) invocation.getTarget();
+		MappedStatement mappedStatement = (MappedStatement) args[0];
+		Object parameter = args[1];
+		RowBounds rowBounds = (RowBounds) args[2];
+		BoundSql boundSql = mappedStatement.getBoundSql(parameter);
+		CacheKey cacheKey = executor.createCacheKey(mappedStatement, parameter, rowBounds, boundSql);
+		if (null != parameter) {
+			MetaObject metaObject = mappedStatement.getConfiguration().newMetaObject(parameter);
+			for (String name : PAGE_PARAMETERS) {
+				if (metaObject.hasGetter(name)) {
+					cacheKey.update(name);
+					cacheKey.update(metaObject.getValue(name));
+				}
+			}
+		}
+		return executor.query(mappedStatement, parameter, rowBounds, (ResultHandler<?>) args[3], cacheKey, boundSql);
+	}
+
+	private RewrittenSql processPagedSql(Dialect dialect, String sql) {
+		List<String> parameters = new ArrayList<>(2);
+		String pagedSql = dialect.getLimitHandler().processSql(sql, parameters);
+		return new RewrittenSql(pagedSql, parameters);
 	}
 
 	private String processPagedCountSql(String sql) {
 		return QueryUtils.createCountQueryFor(sql);
 	}
 
-	private boolean isNativePagedQuery() {
-		return nativePagedQueryFlag.get() != null || nativePagedCountQueryFlag.get() != null;
+	/**
+	 * append the page values to the parameters of {@code boundSql}, they follow the placeholders of the statement.
+	 */
+	private void bindPageParameters(BoundSql boundSql, MappedStatement mappedStatement, List<String> parameters) {
+		Assert.notNull(mappedStatement, "could not find the statement to bind page parameters to.");
+		// the mappings of a static statement are shared by all its executions.
+		List<ParameterMapping> mappings = new ArrayList<>(boundSql.getParameterMappings());
+		for (String parameter : parameters) {
+			// page values are int or long, their type handler is resolved when they are bound.
+			mappings.add(new ParameterMapping.Builder(mappedStatement.getConfiguration(), parameter, Object.class).build());
+		}
+		ReflectionUtils.setField(PARAMETER_MAPPINGS_FIELD, boundSql, mappings);
+	}
+
+	private static class RewrittenSql {
+
+		private final String sql;
+
+		/**
+		 * names of the page values bound to the placeholders added to {@link #sql}.
+		 */
+		private final List<String> parameters;
+
+		RewrittenSql(String sql) {
+			this(sql, Collections.emptyList());
+		}
+
+		RewrittenSql(String sql, List<String> parameters) {
+			this.sql = sql;
+			this.parameters = parameters;
+		}
 	}
 
 	interface SqlProcessor {
@@ -0,0 +1,114 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import java.lang.reflect.Proxy;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.data.mybatis.repository.dialect.Dialect;
+import org.springframework.util.Assert;
+
+/**
+ * asks {@link NativePagedQueryPlugin} and {@link NativePagedCountPlugin} to page or count a native statement.
+ * <p>
+ * The request travels with the statement itself, so it does not depend on the thread running it. Rows are neither
+ * skipped nor limited by MyBatis, the database does it.
+ *
+ * @author Jarvis Song
+ */
+public class NativePagedRowBounds extends RowBounds {
+
+	/**
+	 * count the rows of the statement instead of reading them.
+	 */
+	public static final NativePagedRowBounds COUNT = new NativePagedRowBounds(null, NO_ROW_LIMIT - 1);
+
+	private final Dialect dialect;
+
+	/**
+	 * the limit is part of the cache key of a query, the count is read by {@link NativePagedCountPlugin} and never
+	 * limited, so a limit of its own keeps the count apart from the cached rows of the same statement.
+	 */
+	private NativePagedRowBounds(Dialect dialect, int limit) {
+		super(NO_ROW_OFFSET, limit);
+		this.dialect = dialect;
+	}
+
+	/**
+	 * read the page of the statement told by the {@code offset}, {@code pageSize} and {@code offsetEnd} parameters,
+	 * {@link NativePagedQueryPlugin} adds their values to the cache key of the query.
+	 */
+	public static NativePagedRowBounds page(Dialect dialect) {
+		Assert.notNull(dialect, "dialect must not be null!");
+		return new NativePagedRowBounds(dialect, NO_ROW_LIMIT);
+	}
+
+	public boolean isCount() {
+		return null == dialect;
+	}
+
+	/**
+	 * @return dialect paging the statement, {@literal null} when counting.
+	 */
+	public Dialect getDialect() {
+		return dialect;
+	}
+
+	/**
+	 * @return the native paging requested for the statement of {@code statementHandler}, {@literal null} if none.
+	 */
+	static NativePagedRowBounds of(StatementHandler statementHandler) {
+		RowBounds rowBounds = getRowBounds(statementHandler);
+		return rowBounds instanceof NativePagedRowBounds ? (NativePagedRowBounds) rowBounds : null;
+	}
+
+	/**
+	 * @return the row bounds of the statement run by {@code statementHandler}, {@literal null} if unknown.
+	 */
+	static RowBounds getRowBounds(StatementHandler statementHandler) {
+		MetaObject handler = forTarget(statementHandler);
+		return null == handler ? null : (RowBounds) handler.getValue("delegate.rowBounds");
+	}
+
+	/**
+	 * @return the mapped statement being run by {@code statementHandler}, {@literal null} if unknown.
+	 */
+	static MappedStatement getMappedStatement(StatementHandler statementHandler) {
+		MetaObject handler = forTarget(statementHandler);
+		return null == handler ? null : (MappedStatement) handler.getValue("delegate.mappedStatement");
+	}
+
+	private static MetaObject forTarget(StatementHandler statementHandler) {
+		Object target = statementHandler;
+		// other plugins may wrap the handler.
+		while (Proxy.isProxyClass(target.getClass())) {
+			MetaObject plugin = SystemMetaObject.forObject(Proxy.getInvocationHandler(target));
+			if (!plugin.hasGetter("target")) {
+				return null;
+			}
+			target = plugin.getValue("target");
+		}
+		MetaObject handler = SystemMetaObject.forObject(target);
+		return handler.hasGetter("delegate") ? handler : null;
+	}
+}
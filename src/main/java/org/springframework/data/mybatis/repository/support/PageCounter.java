@@ -0,0 +1,241 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mybatis.annotations.PageCount;
+import org.springframework.data.mybatis.annotations.PageCount.Strategy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * reads one {@link Page} and tells its total following a {@link PageCount.Strategy}.
+ *
+ * @author Jarvis Song
+ */
+public class PageCounter {
+
+	public static final PageCounter EXACT = new PageCounter(Strategy.EXACT, 0);
+
+	private static final int MAX_CACHED_TOTALS = 1024;
+
+	private static final ThreadPoolExecutor COUNT_EXECUTOR;
+
+	static {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("mybatis-page-count-");
+		threadFactory.setDaemon(true);
+		// every running count holds a connection, when all threads are busy the count runs after the page query.
+		COUNT_EXECUTOR = new ThreadPoolExecutor(0, Runtime.getRuntime().availableProcessors() * 2, 60L,
+				TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory);
+	}
+
+	private final Strategy strategy;
+
+	/**
+	 * totals of the {@link Strategy#CACHED} strategy, held by each counter so that they are not shared between
+	 * repositories and their SqlSessionFactories.
+	 */
+	private final ExpiringCache<Object, Long> cachedTotals;
+
+	public PageCounter(Strategy strategy, long ttlSeconds) {
+		Assert.notNull(strategy, "strategy must not be null!");
+		this.strategy = strategy;
+		this.cachedTotals = strategy == Strategy.CACHED && ttlSeconds > 0
+				? new ExpiringCache<>(ttlSeconds, MAX_CACHED_TOTALS) : null;
+	}
+
+	public static PageCounter of(PageCount annotation) {
+		if (null == annotation || annotation.value() == Strategy.EXACT) {
+			return EXACT;
+		}
+		return new PageCounter(annotation.value(), annotation.ttl());
+	}
+
+	public Strategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * @param pager the requested page.
+	 * @param params parameters of the page query, holding {@code offset}, {@code pageSize} and {@code offsetEnd}.
+	 * @param select reads the rows of the page with {@code params}.
+	 * @param count counts all rows with {@code params}.
+	 * @param estimate estimated row count of the table, returns {@literal null} if there is none or the query has a
+	 *          condition.
+	 * @param selectWithTotal reads the rows of the page with a query built by
+	 *          {@link org.springframework.data.mybatis.repository.dialect.pagination.LimitHandler#processSqlWithTotal}
+	 *          and the given row bounds, {@literal null} if there is none.
+	 * @param statementId statement of the page query, identifies cached totals.
+	 */
+	public <T> Page<T> page(Pageable pager, Map<String, Object> params, Supplier<List<T>> select, LongSupplier count,
+			Supplier<Long> estimate, Function<RowBounds, List<T>> selectWithTotal, String statementId) {
+
+		switch (strategy) {
+		case SKIP:
+			return pageWithoutCount(pager, params, select);
+		case PARALLEL:
+			return pageWithParallelCount(pager, select, count);
+		case CACHED:
+			return pageWithCachedCount(pager, params, select, count, statementId);
+		case ESTIMATED:
+			return pageWithEstimatedCount(pager, select, count, estimate);
+		case WINDOW:
+			if (null != selectWithTotal) {
+				return pageWithWindowCount(pager, selectWithTotal, count);
+			}
+			// falls through to an exact count.
+		default:
+			List<T> content = select.get();
+			long total = calculateTotal(pager, content);
+			return new PageImpl<>(content, pager, total < 0 ? count.getAsLong() : total);
+		}
+	}
+
+	private <T> Page<T> pageWithoutCount(Pageable pager, Map<String, Object> params, Supplier<List<T>> select) {
+		params.put("pageSize", pager.getPageSize() + 1);
+		params.put("offsetEnd", pager.getOffset() + pager.getPageSize() + 1);
+		List<T> rows = select.get();
+		boolean hasMore = rows.size() > pager.getPageSize();
+		List<T> content = hasMore ? rows.subList(0, pager.getPageSize()) : rows;
+		return new PageImpl<>(content, pager, pager.getOffset() + content.size() + (hasMore ? 1 : 0));
+	}
+
+	private <T> Page<T> pageWithParallelCount(Pageable pager, Supplier<List<T>> select, LongSupplier count) {
+		Future<Long> counting = null;
+		// another connection could not see the rows written by the current transaction.
+		if (!TransactionSynchronizationManager.isActualTransactionActive()
+				|| TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			try {
+				counting = COUNT_EXECUTOR.submit(count::getAsLong);
+			}
+			catch (RejectedExecutionException e) {
+				counting = null;
+			}
+		}
+
+		List<T> content = select.get();
+		long total = calculateTotal(pager, content);
+		if (null == counting) {
+			return new PageImpl<>(content, pager, total < 0 ? count.getAsLong() : total);
+		}
+		if (total >= 0) {
+			counting.cancel(false);
+			return new PageImpl<>(content, pager, total);
+		}
+		try {
+			return new PageImpl<>(content, pager, counting.get());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MybatisQueryException("interrupted while counting page total.", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new MybatisQueryException("count page total failed.", e.getCause());
+		}
+	}
+
+	private <T> Page<T> pageWithCachedCount(Pageable pager, Map<String, Object> params, Supplier<List<T>> select,
+			LongSupplier count, String statementId) {
+		List<T> content = select.get();
+		long total = calculateTotal(pager, content);
+		if (total >= 0) {
+			return new PageImpl<>(content, pager, total);
+		}
+		if (null == cachedTotals) {
+			return new PageImpl<>(content, pager, count.getAsLong());
+		}
+
+		Map<String, Object> condition = new HashMap<>(params);
+		condition.remove("offset");
+		condition.remove("pageSize");
+		condition.remove("offsetEnd");
+		condition.remove("_sorts");
+		Object key = Arrays.asList(statementId, condition);
+
+		Long cached = cachedTotals.get(key);
+		if (null == cached) {
+			long stamp = cachedTotals.stamp(key);
+			cached = count.getAsLong();
+			cachedTotals.put(key, cached, stamp);
+		}
+		return new PageImpl<>(content, pager, cached);
+	}
+
+	private <T> Page<T> pageWithEstimatedCount(Pageable pager, Supplier<List<T>> select, LongSupplier count,
+			Supplier<Long> estimate) {
+		List<T> content = select.get();
+		long total = calculateTotal(pager, content);
+		if (total >= 0) {
+			return new PageImpl<>(content, pager, total);
+		}
+		Long estimated = null == estimate ? null : estimate.get();
+		// an estimate not reaching past this full page would hide the pages after it.
+		if (null == estimated || estimated <= pager.getOffset() + pager.getPageSize()) {
+			return new PageImpl<>(content, pager, count.getAsLong());
+		}
+		return new PageImpl<>(content, pager, estimated);
+	}
+
+	private <T> Page<T> pageWithWindowCount(Pageable pager, Function<RowBounds, List<T>> selectWithTotal,
+			LongSupplier count) {
+		WindowCountRowBounds rowBounds = new WindowCountRowBounds();
+		List<T> content = selectWithTotal.apply(rowBounds);
+		long total = rowBounds.getTotal();
+		if (total < 0) {
+			// no row read, or the rows came from the local cache.
+			total = calculateTotal(pager, content);
+		}
+		return new PageImpl<>(content, pager, total < 0 ? count.getAsLong() : total);
+	}
+
+	/**
+	 * @return the total told by the rows of the page, -1 if the rows do not tell it.
+	 */
+	static <X> long calculateTotal(Pageable pager, List<X> result) {
+		if (CollectionUtils.isEmpty(result)) {
+			return pager.getOffset() == 0 ? 0 : -1;
+		}
+		if (result.size() < pager.getPageSize()) {
+			return pager.getOffset() + result.size();
+		}
+		return -1;
+	}
+}
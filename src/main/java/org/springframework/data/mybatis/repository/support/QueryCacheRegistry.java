@@ -0,0 +1,65 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * the query result caches of one MyBatis {@link Configuration} by the table they read, so a write to a table can drop
+ * them, whichever repository the queries belong to.
+ *
+ * @author Jarvis Song
+ */
+public class QueryCacheRegistry {
+
+	private static final Map<Configuration, QueryCacheRegistry> REGISTRIES = new WeakHashMap<>();
+
+	private final Map<String, List<ExpiringCache<?, ?>>> caches = new ConcurrentHashMap<>();
+
+	public static QueryCacheRegistry of(Configuration configuration) {
+		synchronized (REGISTRIES) {
+			return REGISTRIES.computeIfAbsent(configuration, c -> new QueryCacheRegistry());
+		}
+	}
+
+	public void register(String table, ExpiringCache<?, ?> cache) {
+		caches.computeIfAbsent(table.toLowerCase(Locale.ROOT), t -> new CopyOnWriteArrayList<>()).add(cache);
+	}
+
+	public boolean hasCaches(String table) {
+		return caches.containsKey(table.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * drop all results read from {@code table}.
+	 */
+	public void clear(String table) {
+		List<ExpiringCache<?, ?>> cachesOfTable = caches.get(table.toLowerCase(Locale.ROOT));
+		if (null != cachesOfTable) {
+			cachesOfTable.forEach(ExpiringCache::clear);
+		}
+	}
+}
@@ -19,16 +19,24 @@
 package org.springframework.data.mybatis.repository.support;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 
+import org.apache.ibatis.session.ResultHandler;
 import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.SimpleTypeConverter;
 import org.springframework.beans.TypeConverter;
 import org.springframework.data.annotation.CreatedBy;
@@ -47,12 +55,18 @@ import org.springframework.data.mapping.AssociationHandler;
 import org.springframework.data.mapping.PropertyHandler;
 import org.springframework.data.mybatis.id.IdentityGenerator;
 import org.springframework.data.mybatis.id.IdentityGeneratorFactory;
+import org.springframework.data.mybatis.mapping.MybatisPersistentEntity;
 import org.springframework.data.mybatis.mapping.MybatisPersistentProperty;
+import org.springframework.data.mybatis.repository.dialect.Dialect;
 import org.springframework.data.mybatis.repository.domain.ExampleInfo;
+import org.springframework.data.mybatis.repository.domain.KeysetPageable;
+import org.springframework.data.mybatis.repository.domain.KeysetSlice;
 import org.springframework.data.mybatis.utils.ReflectionUtils;
 import org.springframework.data.support.ExampleMatcherAccessor;
 import org.springframework.data.util.DirectFieldAccessFallbackBeanWrapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
 /**
@@ -72,10 +86,21 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 
 	private static final String STATEMENT_FIND_BY_ID = "_findById";
 
+	private static final String STATEMENT_FIND_ALL_STREAM = "_findAllStream";
+
 	private static final String STATEMENT_DELETE_BY_ID = "_deleteById";
+
+	private static final String STATEMENT_DELETE_BY_IDS = "_deleteByIds";
 	
 	private static final String STATEMENT_DELETE_BY_EXAMPLE = "_deleteByExample";
 
+	public static final int DEFAULT_BATCH_FLUSH_SIZE = 1000;
+
+	/**
+	 * number of ids bound into one {@code IN} list when the dialect has no limit.
+	 */
+	public static final int DEFAULT_ID_CHUNK_SIZE = 1000;
+
 	private TypeConverter simpleConverter = new SimpleTypeConverter();
 
 	private final MybatisEntityInformation<T, ID> entityInformation;
@@ -84,6 +109,25 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 
 	private AuditorAware<?> auditorAware;
 
+	private int batchFlushSize = DEFAULT_BATCH_FLUSH_SIZE;
+
+	private int inExpressionCountLimit;
+
+	private int idColumnCount = -1;
+
+	private ExpiringCache<ID, T> entityCache;
+
+	private QueryCacheRegistry queryCaches;
+
+	private String tableName;
+
+	private FindByIdBatcher<ID, T> findByIdBatcher;
+
+	/**
+	 * whether the driver reported no update counts for a batch, versioned entities are then updated one by one.
+	 */
+	private volatile boolean batchUpdateCountsUnknown;
+
 	public SimpleMybatisRepository(MybatisEntityInformation<T, ID> entityInformation,
 			SqlSessionTemplate sqlSessionTemplate, IdentityGeneratorFactory<ID, T> identityGeneratorFactory,
 			AuditorAware<?> auditorAware) {
@@ -98,16 +142,67 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 		return entityInformation.getJavaType().getName();
 	}
 
+	/**
+	 * Number of statements sent to the database in one JDBC batch.
+	 */
+	public void setBatchFlushSize(int batchFlushSize) {
+		Assert.isTrue(batchFlushSize > 0, "batchFlushSize must be greater than 0!");
+		this.batchFlushSize = batchFlushSize;
+	}
+
+	/**
+	 * Max number of ids bound into one {@code IN} list, see {@link Dialect#getInExpressionCountLimit()}.
+	 */
+	public void setInExpressionCountLimit(int inExpressionCountLimit) {
+		this.inExpressionCountLimit = inExpressionCountLimit;
+	}
+
+	/**
+	 * Cache of the entities read by id, {@literal null} to always read them from the database.
+	 *
+	 * @see org.springframework.data.mybatis.annotations.EntityCache
+	 */
+	public void setEntityCache(ExpiringCache<ID, T> entityCache) {
+		this.entityCache = entityCache;
+	}
+
+	/**
+	 * Query result caches dropped by writes to the table of the entity.
+	 *
+	 * @see org.springframework.data.mybatis.annotations.QueryCache
+	 */
+	public void setQueryCacheRegistry(QueryCacheRegistry queryCaches) {
+		this.queryCaches = queryCaches;
+		this.tableName = ((MybatisPersistentEntity<?>) entityInformation.getPersistentEntity()).getTableName();
+	}
+
+	/**
+	 * Read the ids concurrent threads pass to {@link #findById(Serializable)} with one query.
+	 *
+	 * @see org.springframework.data.mybatis.annotations.BatchedFindById
+	 */
+	public void setFindByIdBatching(long windowMillis, int maxBatchSize) {
+		this.findByIdBatcher = new FindByIdBatcher<>(ids -> {
+			List<T> entities = new ArrayList<>(ids.size());
+			for (List<ID> chunk : partition(ids, getIdChunkSize())) {
+				entities.addAll(selectByIds(chunk));
+			}
+			return entities;
+		}, entityInformation::getId, windowMillis, maxBatchSize);
+	}
+
 	@Override
 	public <S extends T> S insert(S entity) {
 		processAuditingMetadata(entity, true);
 		insert(STATEMENT_INSERT, entity);
+		evictCached(Collections.singletonList(entity));
 		return entity;
 	}
 
 	@Override
 	public <S extends T> S update(S entity) {
 		processAuditingMetadata(entity, false);
+		evictCached(Collections.singletonList(entity));
 		int row = update(STATEMENT_UPDATE, entity);
 		if (row == 0) {
 			throw new MybatisNoHintException("update effect 0 row, maybe version control lock occurred.");
@@ -118,6 +213,7 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 	@Override
 	public <S extends T> S updateIgnoreNull(S entity) {
 		processAuditingMetadata(entity, false);
+		evictCached(Collections.singletonList(entity));
 		int row = update(STATEMENT_UPDATE_IGNORE_NULL, entity);
 		if (row == 0) {
 			throw new MybatisNoHintException("update effect 0 row, maybe version control lock occurred.");
@@ -129,30 +225,7 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 	public <S extends T> S save(S entity) {
 		Assert.notNull(entity, "entity can not be null");
 		if (entityInformation.isNew(entity)) {
-			// Process GeneratedValue
-			entityInformation.getPersistentEntity().doWithProperties(
-					(PropertyHandler<MybatisPersistentProperty>) (p) -> {
-						if (p.isIdProperty()) {
-							GeneratedValue gv = p.findAnnotation(GeneratedValue.class);
-							if (null != gv) {
-								IdentityGenerator<ID> generator = identityGeneratorFactory.resolve(gv.strategy(),
-										gv.generator(), p);
-								Assert.notNull(generator,
-										String.format("No suitable IdentityGenerator found for Entity %s Property %s",
-												entityInformation.getEntityName(), p.getName()));
-								ID id = generator.generate(p);
-								org.springframework.data.util.ReflectionUtils.setField(p.getField(), entity,
-										simpleConverter.convertIfNecessary(id, p.getActualType()));
-							}
-						}
-					});
-
-			entityInformation.getPersistentEntity().doWithAssociations(
-					(AssociationHandler<MybatisPersistentProperty>) (association) -> {
-						if (association.getInverse().isIdProperty()) {
-							throw new UnsupportedOperationException("Do not support generate @EmbeddedId!");
-						}
-					});
+			generateIdentity(entity);
 			insert(entity);
 		}
 		else {
@@ -162,6 +235,34 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 		return entity;
 	}
 
+	private void generateIdentity(T entity) {
+		// Process GeneratedValue
+		entityInformation.getPersistentEntity().doWithProperties(
+				(PropertyHandler<MybatisPersistentProperty>) (p) -> {
+					if (p.isIdProperty()) {
+						GeneratedValue gv = p.findAnnotation(GeneratedValue.class);
+						// identity columns are generated by the database on insert.
+						if (null != gv && gv.strategy() != GenerationType.IDENTITY) {
+							IdentityGenerator<ID> generator = identityGeneratorFactory.resolve(gv.strategy(),
+									gv.generator(), p);
+							Assert.notNull(generator,
+									String.format("No suitable IdentityGenerator found for Entity %s Property %s",
+											entityInformation.getEntityName(), p.getName()));
+							ID id = generator.generate(p);
+							org.springframework.data.util.ReflectionUtils.setField(p.getField(), entity,
+									simpleConverter.convertIfNecessary(id, p.getActualType()));
+						}
+					}
+				});
+
+		entityInformation.getPersistentEntity().doWithAssociations(
+				(AssociationHandler<MybatisPersistentProperty>) (association) -> {
+					if (association.getInverse().isIdProperty()) {
+						throw new UnsupportedOperationException("Do not support generate @EmbeddedId!");
+					}
+				});
+	}
+
 	@Override
 	public <S extends T> S saveIgnoreNull(S entity) {
 		Assert.notNull(entity, "entity can not be null");
@@ -180,7 +281,27 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 	@Override
 	public Optional<T> findById(ID id) {
 		Assert.notNull(id, "id can not be null");
-		return Optional.ofNullable(selectOne(STATEMENT_FIND_BY_ID, id));
+		if (!isEntityCacheUsable()) {
+			return Optional.ofNullable(selectById(id));
+		}
+		T cached = entityCache.get(id);
+		if (null != cached) {
+			return Optional.of(copyOf(cached));
+		}
+		long stamp = entityCache.stamp(id);
+		T entity = selectById(id);
+		cache(id, entity, stamp);
+		return Optional.ofNullable(entity);
+	}
+
+	private T selectById(ID id) {
+		// a transaction reads with its own connection.
+		if (null == findByIdBatcher || TransactionSynchronizationManager.isActualTransactionActive()) {
+			return selectOne(STATEMENT_FIND_BY_ID, id);
+		}
+		T entity = findByIdBatcher.load(id);
+		// threads looking for the same id got the same instance.
+		return isCopyable(entity) ? copyOf(entity) : entity;
 	}
 
 	@Override
@@ -196,6 +317,7 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 	@Override
 	public void deleteById(ID id) {
 		Assert.notNull(id, "id can not be null");
+		evictCachedIds(Collections.singletonList(id));
 		super.delete(STATEMENT_DELETE_BY_ID, id);
 	}
 
@@ -217,6 +339,7 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 
 	@Override
 	public void deleteAll() {
+		clearCached();
 		super.delete("_deleteAll");
 	}
 
@@ -238,7 +361,61 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 			return Collections.emptyList();
 		}
 
-		HashMap<String, Object> params = new HashMap<String, Object>();
+		if (!isEntityCacheUsable()) {
+			List<ID> list = new ArrayList<>();
+			ids.forEach(list::add);
+			List<T> result = new ArrayList<>(list.size());
+			for (List<ID> chunk : partition(list, getIdChunkSize())) {
+				result.addAll(selectByIds(chunk));
+			}
+			return result;
+		}
+
+		// cached entities by id in the requested order, the missing ones are read in IN lists.
+		Map<ID, T> found = new LinkedHashMap<>();
+		Map<ID, Long> stamps = new LinkedHashMap<>();
+		for (ID id : ids) {
+			Assert.notNull(id, "id can not be null");
+			if (found.containsKey(id) || stamps.containsKey(id)) {
+				continue;
+			}
+			T cached = entityCache.get(id);
+			if (null != cached) {
+				found.put(id, copyOf(cached));
+			}
+			else {
+				found.put(id, null);
+				stamps.put(id, entityCache.stamp(id));
+			}
+		}
+		List<T> unmatched = new ArrayList<>();
+		for (List<ID> chunk : partition(new ArrayList<>(stamps.keySet()), getIdChunkSize())) {
+			for (T entity : selectByIds(chunk)) {
+				ID id = entityInformation.getId(entity);
+				Long stamp = stamps.get(id);
+				if (null != stamp) {
+					cache(id, entity, stamp);
+					found.put(id, entity);
+				}
+				else {
+					// the id read differs from the one asked for, e.g. in its type.
+					unmatched.add(entity);
+				}
+			}
+		}
+
+		List<T> result = new ArrayList<>(found.size());
+		for (T entity : found.values()) {
+			if (null != entity) {
+				result.add(entity);
+			}
+		}
+		result.addAll(unmatched);
+		return result;
+	}
+
+	private List<T> selectByIds(List<ID> ids) {
+		Map<String, Object> params = new HashMap<>();
 		params.put("_ids", ids);
 		return selectList("_findAll", params);
 	}
@@ -248,10 +425,35 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 		if (null == entities) {
 			return Collections.emptyList();
 		}
+		List<S> result = new ArrayList<>();
+		List<S> news = new ArrayList<>();
+		List<S> updates = new ArrayList<>();
 		for (S entity : entities) {
-			save(entity);
+			Assert.notNull(entity, "entity can not be null");
+			result.add(entity);
+			if (entityInformation.isNew(entity)) {
+				generateIdentity(entity);
+				news.add(entity);
+			}
+			else {
+				updates.add(entity);
+			}
 		}
-		return (List<S>) entities;
+		insertInBatch(news);
+		BatchWriteResult<S> updated = updateInBatch(STATEMENT_UPDATE, updates);
+		if (updated.hasUnaffectedEntities()) {
+			List<S> unaffected = updated.getUnaffectedEntities();
+			Set<S> stale = Collections.newSetFromMap(new IdentityHashMap<>());
+			stale.addAll(unaffected);
+			List<S> written = new ArrayList<>(news);
+			for (S entity : updates) {
+				if (!stale.contains(entity)) {
+					written.add(entity);
+				}
+			}
+			throw new UnaffectedEntitiesException(written, unaffected);
+		}
+		return result;
 	}
 
 	@Override
@@ -270,6 +472,53 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 		return selectList("_findAll", params);
 	}
 
+	@Override
+	public <S extends T> void findAll(Example<S> example, Consumer<? super S> consumer) {
+		Assert.notNull(example, "Example can not be null!");
+		Assert.notNull(consumer, "Consumer can not be null!");
+		Map<String, Object> params = new HashMap<>();
+		params.put("_example", buildExample(example));
+		select(STATEMENT_FIND_ALL_STREAM, params,
+				(ResultHandler<S>) context -> consumer.accept(context.getResultObject()));
+	}
+
+	@Override
+	public void forEach(Sort sort, Consumer<? super T> consumer) {
+		Assert.notNull(consumer, "Consumer can not be null!");
+		Map<String, Object> params = new HashMap<>();
+		params.put("_sorts", sort);
+		select(STATEMENT_FIND_ALL_STREAM, params,
+				(ResultHandler<T>) context -> consumer.accept(context.getResultObject()));
+	}
+
+	@Override
+	public KeysetSlice<T> findAll(KeysetPageable pageable) {
+		return findByKeyset(pageable, null);
+	}
+
+	@Override
+	public <S extends T> KeysetSlice<S> findAll(Example<S> example, KeysetPageable pageable) {
+		Assert.notNull(example, "Example can not be null!");
+		return findByKeyset(pageable, buildExample(example));
+	}
+
+	private <X> KeysetSlice<X> findByKeyset(KeysetPageable pageable, Object example) {
+		Assert.notNull(pageable, "KeysetPageable can not be null!");
+		MybatisPersistentProperty idProperty = entityInformation.getPersistentEntity().getIdProperty();
+		KeysetPageable request = null == idProperty || idProperty.isCompositeId() ? pageable
+				: pageable.withTieBreaker(idProperty.getName());
+		Map<String, Object> params = new HashMap<>();
+		// the extra row only tells whether there is a next slice.
+		params.put("offset", 0L);
+		params.put("pageSize", request.getSize() + 1);
+		params.put("offsetEnd", request.getSize() + 1L);
+		params.put("_sorts", request.getSort());
+		params.put("_example", example);
+		params.put("_keyset", request.getConditions());
+		List<X> rows = selectList("_findByKeyset", params);
+		return KeysetSlice.of(rows, request);
+	}
+
 	@Override
 	public <S extends T> Optional<S> findOne(Example<S> example) {
 		Map<String, Object> params = new HashMap<String, Object>();
@@ -304,8 +553,69 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 
 	@Override
 	public void deleteInBatch(Iterable<T> entities) {
-		//TODO improve delete in batch
-		deleteAll(entities);
+		if (null == entities) {
+			return;
+		}
+		List<ID> ids = new ArrayList<>();
+		for (T entity : entities) {
+			Assert.notNull(entity, "entity can not be null!");
+			ids.add(entityInformation.getId(entity));
+		}
+		deleteAllById(ids);
+	}
+
+	@Override
+	public void deleteAllById(Iterable<? extends ID> ids) {
+		if (null == ids) {
+			return;
+		}
+		List<ID> list = new ArrayList<>();
+		for (ID id : ids) {
+			Assert.notNull(id, "id can not be null");
+			list.add(id);
+		}
+		evictCachedIds(list);
+		for (List<ID> chunk : partition(list, getIdChunkSize())) {
+			Map<String, Object> params = new HashMap<>();
+			params.put("_ids", chunk);
+			super.delete(STATEMENT_DELETE_BY_IDS, params);
+		}
+	}
+
+	/**
+	 * number of ids one statement binds, keeps composite ids under the bind parameter limit of the dialect too.
+	 */
+	private int getIdChunkSize() {
+		if (inExpressionCountLimit <= 0) {
+			return DEFAULT_ID_CHUNK_SIZE;
+		}
+		if (idColumnCount < 0) {
+			idColumnCount = countIdColumns();
+		}
+		return Math.max(1, inExpressionCountLimit / idColumnCount);
+	}
+
+	private int countIdColumns() {
+		MybatisPersistentProperty idProperty = entityInformation.getPersistentEntity().getIdProperty();
+		if (null == idProperty || !idProperty.isCompositeId()) {
+			return 1;
+		}
+		MybatisPersistentEntity<?> idEntity = ((MybatisPersistentEntity<?>) entityInformation.getPersistentEntity())
+				.getContext().getPersistentEntity(idProperty.getActualType());
+		if (null == idEntity) {
+			return 1;
+		}
+		int[] count = new int[1];
+		idEntity.doWithProperties((PropertyHandler<MybatisPersistentProperty>) (p) -> count[0]++);
+		return Math.max(1, count[0]);
+	}
+
+	private static <X> List<List<X>> partition(List<X> list, int size) {
+		List<List<X>> chunks = new ArrayList<>();
+		for (int i = 0; i < list.size(); i += size) {
+			chunks.add(list.subList(i, Math.min(list.size(), i + size)));
+		}
+		return chunks;
 	}
 
 	private void processAuditingMetadata(T entity, boolean create) {
@@ -408,6 +718,7 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 		Assert.notNull(example, "Example can not be null!");
 		Map<String, Object> params = new HashMap<>();
 		params.put("_example", buildExample(example));
+		clearCached();
 		return super.delete(STATEMENT_DELETE_BY_EXAMPLE, params);
 	}
 
@@ -416,9 +727,146 @@ public class SimpleMybatisRepository<T, ID extends Serializable> extends SqlSess
 		if (null == entities) {
 			return Collections.emptyList();
 		}
+		return insertInBatch(entities).getEntities();
+	}
+
+	@Override
+	public <S extends T> BatchWriteResult<S> insertInBatch(Iterable<S> entities) {
+		List<S> list = new ArrayList<>();
+		if (null != entities) {
+			for (S entity : entities) {
+				Assert.notNull(entity, "entity can not be null");
+				processAuditingMetadata(entity, true);
+				list.add(entity);
+			}
+		}
+		BatchWriteResult<S> result = new BatchWriteResult<>(list, executeBatch(STATEMENT_INSERT, list, batchFlushSize));
+		evictCached(list);
+		return result;
+	}
+
+	@Override
+	public <S extends T> BatchWriteResult<S> updateAll(Iterable<S> entities) {
+		return updateInBatch(STATEMENT_UPDATE, entities);
+	}
+
+	@Override
+	public <S extends T> BatchWriteResult<S> updateIgnoreNullAll(Iterable<S> entities) {
+		return updateInBatch(STATEMENT_UPDATE_IGNORE_NULL, entities);
+	}
+
+	private <S extends T> BatchWriteResult<S> updateInBatch(String statement, Iterable<S> entities) {
+		List<S> list = new ArrayList<>();
+		if (null == entities) {
+			return new BatchWriteResult<>(list, new int[0]);
+		}
 		for (S entity : entities) {
-			insert(entity);
+			Assert.notNull(entity, "entity can not be null");
+			processAuditingMetadata(entity, false);
+			list.add(entity);
+		}
+		evictCached(list);
+		boolean versioned = entityInformation.getPersistentEntity().hasVersionProperty();
+		if (versioned && batchUpdateCountsUnknown) {
+			// only the update count tells whether the version check failed.
+			int[] counts = new int[list.size()];
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = update(statement, list.get(i));
+			}
+			return new BatchWriteResult<>(list, counts);
+		}
+		BatchWriteResult<S> result = new BatchWriteResult<>(list, executeBatch(statement, list, batchFlushSize));
+		if (versioned && result.hasUnknownUpdateCounts()) {
+			// the versions are increased by the batch already, updating the entities again would fail for all of them.
+			batchUpdateCountsUnknown = true;
+			throw new MybatisNoHintException("the JDBC driver reports no update counts for batches, the versions of "
+					+ result.getUnknownEntities().size() + " " + entityInformation.getJavaType().getName()
+					+ " could not be checked. They stay written unless the transaction is rolled back,"
+					+ " later updates of them are run one by one.");
+		}
+		return result;
+	}
+
+	/**
+	 * the cache holds committed rows only, inside a read-write transaction the database is read.
+	 */
+	private boolean isEntityCacheUsable() {
+		return null != entityCache && (!TransactionSynchronizationManager.isActualTransactionActive()
+				|| TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+	}
+
+	private void cache(ID id, T entity, long stamp) {
+		if (isCopyable(entity)) {
+			entityCache.put(id, copyOf(entity), stamp);
+		}
+	}
+
+	private boolean isCopyable(T entity) {
+		// a lazy loading proxy holds the session which read it.
+		return null != entity && entity.getClass() == entityInformation.getJavaType();
+	}
+
+	/**
+	 * cached entities are copied in and out, so callers changing their entity do not change the cache.
+	 */
+	@SuppressWarnings("unchecked")
+	private T copyOf(T entity) {
+		T copy = (T) BeanUtils.instantiateClass(entity.getClass());
+		org.springframework.util.ReflectionUtils.shallowCopyFieldState(entity, copy);
+		return copy;
+	}
+
+	private void evictCached(List<? extends T> entities) {
+		List<ID> ids = new ArrayList<>(null == entityCache ? 0 : entities.size());
+		if (null != entityCache) {
+			for (T entity : entities) {
+				ID id = entityInformation.getId(entity);
+				if (null != id) {
+					ids.add(id);
+				}
+			}
+		}
+		evictCachedIds(ids);
+	}
+
+	private void evictCachedIds(List<ID> ids) {
+		afterWrite(() -> {
+			if (null != entityCache) {
+				ids.forEach(entityCache::evict);
+			}
+		});
+	}
+
+	private void clearCached() {
+		afterWrite(() -> {
+			if (null != entityCache) {
+				entityCache.clear();
+			}
+		});
+	}
+
+	/**
+	 * run {@code eviction} and drop the query results of the table now and once more when the transaction is over,
+	 * until then other readers may still cache the rows as they were before the write.
+	 */
+	private void afterWrite(Runnable eviction) {
+		boolean queriesCached = null != queryCaches && queryCaches.hasCaches(tableName);
+		if (null == entityCache && !queriesCached) {
+			return;
+		}
+		Runnable evictions = !queriesCached ? eviction : () -> {
+			eviction.run();
+			queryCaches.clear(tableName);
+		};
+		evictions.run();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+				@Override
+				public void afterCompletion(int status) {
+					evictions.run();
+				}
+			});
 		}
-		return (List<S>) entities;
 	}
 }
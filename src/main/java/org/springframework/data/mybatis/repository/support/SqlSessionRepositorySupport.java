@@ -18,14 +18,17 @@
 
 package org.springframework.data.mybatis.repository.support;
 
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.SqlSession;
 import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.util.Assert;
-import org.springframework.util.CollectionUtils;
 
 import java.lang.reflect.Constructor;
 import java.util.HashMap;
@@ -42,8 +45,15 @@ public abstract class SqlSessionRepositorySupport {
 
 	private static final char DOT = '.';
 
+	// only generated when the dialect can estimate the row count of the table.
+	private static final String STATEMENT_ESTIMATE_COUNT = "_estimateCount";
+
+	private static final String WINDOW_SUFFIX = "Window";
+
 	private final SqlSessionTemplate sqlSession;
 
+	private PageCounter pageCounter = PageCounter.EXACT;
+
 	protected SqlSessionRepositorySupport(SqlSessionTemplate sqlSessionTemplate) {
 		Assert.notNull(sqlSessionTemplate, "SqlSessionTemplate must not be null!");
 		this.sqlSession = sqlSessionTemplate;
@@ -53,6 +63,18 @@ public abstract class SqlSessionRepositorySupport {
 		return this.sqlSession;
 	}
 
+	public PageCounter getPageCounter() {
+		return pageCounter;
+	}
+
+	/**
+	 * how the totals of pages are counted, see {@link org.springframework.data.mybatis.annotations.PageCount}.
+	 */
+	public void setPageCounter(PageCounter pageCounter) {
+		Assert.notNull(pageCounter, "PageCounter must not be null!");
+		this.pageCounter = pageCounter;
+	}
+
 	/**
 	 * Sub class can override this method.
 	 *
@@ -93,6 +115,13 @@ public abstract class SqlSessionRepositorySupport {
 		return getSqlSession().selectList(getStatement(statement), parameter);
 	}
 
+	/**
+	 * pass the rows to {@code handler} one by one, the results are not collected.
+	 */
+	protected void select(String statement, Object parameter, ResultHandler<?> handler) {
+		getSqlSession().select(getStatement(statement), parameter, handler);
+	}
+
 	protected int insert(String statement) {
 		return getSqlSession().insert(getStatement(statement));
 	}
@@ -117,6 +146,61 @@ public abstract class SqlSessionRepositorySupport {
 		return getSqlSession().delete(getStatement(statement), parameter);
 	}
 
+	/**
+	 * execute the statement once for every parameter through a {@link ExecutorType#BATCH} session which shares the
+	 * spring managed connection, statements are flushed to the database every {@code flushSize} parameters.
+	 *
+	 * @param statement insert, update or delete statement.
+	 * @param parameters
+	 * @param flushSize
+	 * @return update count of every parameter, in the order of {@code parameters}.
+	 */
+	protected int[] executeBatch(String statement, List<?> parameters, int flushSize) {
+		Assert.isTrue(flushSize > 0, "flushSize must be greater than 0!");
+		int[] counts = new int[parameters.size()];
+		if (parameters.isEmpty()) {
+			return counts;
+		}
+
+		String statementId = getStatement(statement);
+		SqlSession batchSession = sqlSession.getSqlSessionFactory().openSession(ExecutorType.BATCH);
+		try {
+			int index = 0;
+			int pending = 0;
+			for (Object parameter : parameters) {
+				// insert and delete are the same as update for the executor.
+				batchSession.update(statementId, parameter);
+				if (++pending == flushSize) {
+					index = collectUpdateCounts(batchSession.flushStatements(), counts, index);
+					pending = 0;
+				}
+			}
+			collectUpdateCounts(batchSession.flushStatements(), counts, index);
+			batchSession.commit();
+		}
+		catch (PersistenceException e) {
+			DataAccessException translated = sqlSession.getPersistenceExceptionTranslator().translateExceptionIfPossible(
+					e);
+			throw null != translated ? translated : e;
+		}
+		finally {
+			batchSession.close();
+		}
+
+		// rows written by the batch session are unknown to the local cache of the shared session.
+		sqlSession.clearCache();
+		return counts;
+	}
+
+	private int collectUpdateCounts(List<BatchResult> results, int[] counts, int index) {
+		for (BatchResult result : results) {
+			for (int count : result.getUpdateCounts()) {
+				counts[index++] = count;
+			}
+		}
+		return index;
+	}
+
 	/**
 	 * Calculate total mount.
 	 *
@@ -125,16 +209,31 @@ public abstract class SqlSessionRepositorySupport {
 	 * @return if return -1 means can not judge ,need count from database.
 	 */
 	protected <X> long calculateTotal(Pageable pager, List<X> result) {
-		if (pager.hasPrevious()) {
-			if (CollectionUtils.isEmpty(result))
-				return -1;
-			if (result.size() == pager.getPageSize())
-				return -1;
-			return (pager.getPageNumber() - 1) * pager.getPageSize() + result.size();
-		}
-		if (result.size() < pager.getPageSize())
-			return result.size();
-		return -1;
+		return PageCounter.calculateTotal(pager, result);
+	}
+
+	/**
+	 * read the page and count its total following {@link #getPageCounter()}, the count statement gets the same
+	 * parameters as the select statement. A {@code <selectStatement>Window} statement, if any, selects the total along
+	 * with the rows.
+	 *
+	 * @param conditioned whether the select statement may read less than all rows of the table, the estimated row
+	 *          count of the table is then not used as total.
+	 */
+	protected <X> Page<X> findPage(Pageable pager, String selectStatement, String countStatement,
+			Map<String, Object> params, boolean conditioned) {
+		String windowStatement = getStatement(selectStatement + WINDOW_SUFFIX);
+		return pageCounter.page(pager, params, () -> this.<X> selectList(selectStatement, params),
+				() -> this.<Long> selectOne(countStatement, params), () -> {
+					if (conditioned) {
+						return null;
+					}
+					String estimateStatement = getStatement(STATEMENT_ESTIMATE_COUNT);
+					return sqlSession.getConfiguration().hasStatement(estimateStatement, false)
+							? sqlSession.<Long> selectOne(estimateStatement) : null;
+				}, sqlSession.getConfiguration().hasStatement(windowStatement, false)
+						? rowBounds -> sqlSession.<X> selectList(windowStatement, params, rowBounds) : null,
+				getStatement(selectStatement));
 	}
 
 	protected <X, Y, T extends Page<X>> T findByPager(Class<T> resultType, Pageable pager, String selectStatement,
@@ -151,16 +250,12 @@ public abstract class SqlSessionRepositorySupport {
 		}
 		params.put("_condition", condition);
 
-		List<X> result = selectList(selectStatement, params);
-
-		long total = calculateTotal(pager, result);
-		if (total < 0) {
-			total = selectOne(countStatement, params);
-		}
+		Page<X> page = findPage(pager, selectStatement, countStatement, params,
+				null != condition && !(condition instanceof Sort));
 
 		try {
 			Constructor<T> constructor = resultType.getConstructor(List.class, Pageable.class, long.class);
-			return constructor.newInstance(result, pager, total);
+			return constructor.newInstance(page.getContent(), pager, page.getTotalElements());
 		}
 		catch (Exception e) {
 			throw new MybatisQueryException(e);
@@ -176,14 +271,7 @@ public abstract class SqlSessionRepositorySupport {
 			params.put("_sorts", pager.getSort());
 		}
 		params.put("_example", condition);
-		List<X> result = selectList(selectStatement, params);
-
-		long total = calculateTotal(pager, result);
-		if (total < 0) {
-			total = selectOne(countStatement, params);
-		}
-
-		return new PageImpl<X>(result, pager, total);
+		return findPage(pager, selectStatement, countStatement, params, null != condition);
 	}
 
 	protected <X> Page<X> findByPager(Pageable pager, String selectStatement, String countStatement) {
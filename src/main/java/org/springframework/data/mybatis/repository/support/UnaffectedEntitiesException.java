@@ -0,0 +1,58 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * thrown when a batched write affected no row for some entities, e.g. because their
+ * {@link javax.persistence.Version} check failed, after the other entities were written. Those stay written unless a
+ * surrounding transaction is rolled back.
+ *
+ * @author Jarvis Song
+ */
+public class UnaffectedEntitiesException extends MybatisNoHintException {
+
+	private final List<?> writtenEntities;
+
+	private final List<?> unaffectedEntities;
+
+	public UnaffectedEntitiesException(List<?> writtenEntities, List<?> unaffectedEntities) {
+		super(String.format(
+				"update effect 0 row for %d entities, maybe version control lock occurred. %d other entities were written.",
+				unaffectedEntities.size(), writtenEntities.size()));
+		this.writtenEntities = Collections.unmodifiableList(writtenEntities);
+		this.unaffectedEntities = Collections.unmodifiableList(unaffectedEntities);
+	}
+
+	/**
+	 * @return entities inserted or updated before the failure was found.
+	 */
+	public List<?> getWrittenEntities() {
+		return writtenEntities;
+	}
+
+	/**
+	 * @return entities whose statement affected no row.
+	 */
+	public List<?> getUnaffectedEntities() {
+		return unaffectedEntities;
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Properties;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.data.mybatis.repository.dialect.pagination.LimitHandler;
+
+/**
+ * reads the total of a page query built by {@link LimitHandler#processSqlWithTotal} from its first row, while the rows
+ * are mapped as usual. The query asks for it by {@link WindowCountRowBounds}, which gets the total.
+ * <p>
+ * The plugin is installed by {@link org.springframework.data.mybatis.repository.dialect.DialectFactoryBean} when the
+ * dialect supports it.
+ *
+ * @author Jarvis Song
+ */
+@Intercepts({
+		@Signature(type = StatementHandler.class, method = "query", args = { Statement.class, ResultHandler.class }) })
+public class WindowCountPlugin implements Interceptor {
+
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+		WindowCountRowBounds total = WindowCountRowBounds.of((StatementHandler) invocation.getTarget());
+		if (null == total || total.getTotal() >= 0) {
+			return invocation.proceed();
+		}
+
+		Statement statement = (Statement) invocation.getArgs()[0];
+		Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+				: statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+		Statement capturing = (Statement) Proxy.newProxyInstance(WindowCountPlugin.class.getClassLoader(),
+				new Class<?>[] { type }, (proxy, method, args) -> {
+					Object result = invoke(method, statement, args);
+					if ("getResultSet".equals(method.getName()) && result instanceof ResultSet) {
+						return capture((ResultSet) result, total);
+					}
+					return result;
+				});
+		return invoke(invocation.getMethod(), invocation.getTarget(), new Object[] { capturing, invocation.getArgs()[1] });
+	}
+
+	private static ResultSet capture(ResultSet resultSet, WindowCountRowBounds total) {
+		return (ResultSet) Proxy.newProxyInstance(WindowCountPlugin.class.getClassLoader(),
+				new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+					Object result = invoke(method, resultSet, args);
+					if (total.getTotal() < 0 && "next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+						total.setTotal(resultSet.getLong(LimitHandler.TOTAL_COLUMN));
+					}
+					return result;
+				});
+	}
+
+	private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	@Override
+	public Object plugin(Object target) {
+		// only the statements asking for their total are wrapped.
+		if (target instanceof StatementHandler && null != WindowCountRowBounds.of((StatementHandler) target)) {
+			return Plugin.wrap(target, this);
+		}
+		return target;
+	}
+
+	@Override
+	public void setProperties(Properties properties) {
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * asks {@link WindowCountPlugin} to read the total of a page query built by
+ * {@link org.springframework.data.mybatis.repository.dialect.pagination.LimitHandler#processSqlWithTotal}, the total
+ * is kept here for the caller.
+ * <p>
+ * A new instance is used by every query, so the total does not depend on the thread running it.
+ *
+ * @author Jarvis Song
+ */
+public class WindowCountRowBounds extends RowBounds {
+
+	private long total = -1;
+
+	/**
+	 * @return the total read by the query, -1 if it read no row or its rows came from a cache.
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	void setTotal(long total) {
+		this.total = total;
+	}
+
+	/**
+	 * @return the window count requested for the statement of {@code statementHandler}, {@literal null} if none.
+	 */
+	static WindowCountRowBounds of(StatementHandler statementHandler) {
+		RowBounds rowBounds = NativePagedRowBounds.getRowBounds(statementHandler);
+		return rowBounds instanceof WindowCountRowBounds ? (WindowCountRowBounds) rowBounds : null;
+	}
+}
@@ -23,125 +23,36 @@
 
 package org.springframework.data.mybatis.utils;
 
+import java.util.List;
 import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
-public final class SQLUtils {
-
-	// CTE pattern support
-	private static final String SPACE_NEWLINE_LINEFEED = "[\\s\\t\\n\\r]*";
-
-	private static final Pattern WITH_CTE = Pattern
-			.compile("(^" + SPACE_NEWLINE_LINEFEED + "WITH" + SPACE_NEWLINE_LINEFEED + ")", Pattern.CASE_INSENSITIVE);
-
-	private static final Pattern WITH_EXPRESSION_NAME = Pattern.compile(
-			"(^" + SPACE_NEWLINE_LINEFEED + "[a-zA-Z0-9_]*" + SPACE_NEWLINE_LINEFEED + ")", Pattern.CASE_INSENSITIVE);
-
-	private static final Pattern WITH_COLUMN_NAMES_START = Pattern.compile("(^" + SPACE_NEWLINE_LINEFEED + "\\()",
-			Pattern.CASE_INSENSITIVE);
+import org.springframework.data.mybatis.utils.SqlTokenizer.Token;
 
-	private static final Pattern WITH_COLUMN_NAMES_END = Pattern.compile("(\\))", Pattern.CASE_INSENSITIVE);
-
-	private static final Pattern WITH_AS = Pattern
-			.compile("(^" + SPACE_NEWLINE_LINEFEED + "AS" + SPACE_NEWLINE_LINEFEED + ")", Pattern.CASE_INSENSITIVE);
-
-	private static final Pattern WITH_COMMA = Pattern.compile("(^" + SPACE_NEWLINE_LINEFEED + ",)",
-			Pattern.CASE_INSENSITIVE);
+public final class SQLUtils {
 
+	/**
+	 * @return the end of the leading {@code WITH} keyword, -1 if the sql has no common table expressions.
+	 */
 	public static int matchWithCET(String sql) {
-		final Matcher matcher = WITH_CTE.matcher(sql);
-		if (matcher.find() && matcher.groupCount() > 0) {
-			return matcher.end();
-		} else {
-			return -1;
-		}
-	}
-
-	public static int locateQueryInCTEStatement(String sql, int offset) {
-		while (true) {
-			Matcher matcher = WITH_EXPRESSION_NAME.matcher(sql.substring(offset));
-			if (matcher.find() && matcher.groupCount() > 0) {
-				offset += matcher.end();
-				System.out.println(sql.substring(offset));
-				matcher = WITH_COLUMN_NAMES_START.matcher(sql.substring(offset));
-				if (matcher.find() && matcher.groupCount() > 0) {
-					offset += matcher.end();
-					matcher = WITH_COLUMN_NAMES_END.matcher(sql.substring(offset));
-					if (matcher.find() && matcher.groupCount() > 0) {
-						offset += matcher.end();
-						offset += advanceOverCTEInnerQuery(sql, offset);
-						matcher = WITH_COMMA.matcher(sql.substring(offset));
-						if (matcher.find() && matcher.groupCount() > 0) {
-							// another CTE fragment exists, re-start parse of CTE
-							offset += matcher.end();
-						} else {
-							// last CTE fragment, we're at the start of the SQL.
-							return offset;
-						}
-					} else {
-						throw new IllegalArgumentException(String.format(Locale.ROOT,
-								"Failed to parse CTE expression columns at offset %d, SQL [%s]", offset, sql.toString()));
-					}
-				} else {
-					matcher = WITH_AS.matcher(sql.substring(offset));
-					if (matcher.find() && matcher.groupCount() > 0) {
-						offset += matcher.end();
-						offset += advanceOverCTEInnerQuery(sql, offset);
-						matcher = WITH_COMMA.matcher(sql.substring(offset));
-						if (matcher.find() && matcher.groupCount() > 0) {
-							// another CTE fragment exists, re-start parse of CTE
-							offset += matcher.end();
-						} else {
-							// last CTE fragment, we're at the start of the SQL.
-							return offset;
-						}
-					} else {
-						throw new IllegalArgumentException(String.format(Locale.ROOT,
-								"Failed to locate AS keyword in CTE query at offset %d, SQL [%s]", offset, sql.toString()));
-					}
-				}
-			} else {
-				throw new IllegalArgumentException(String.format(Locale.ROOT,
-						"Failed to locate CTE expression name at offset %d, SQL [%s]", offset, sql.toString()));
-			}
+		List<Token> tokens = SqlTokenizer.tokenize(sql);
+		if (!tokens.isEmpty() && tokens.get(0).isWord("with")) {
+			return tokens.get(0).getEnd();
 		}
+		return -1;
 	}
 
 	/**
-	 * Advances over the CTE inner query that is contained inside matching '(' and ')'.
-	 *
-	 * @param sql The sql buffer.
-	 * @param offset The offset where to begin advancing the position from.
-	 * @return the position immediately after the CTE inner query plus 1.
-	 *
-	 * @throws IllegalArgumentException if the matching parenthesis aren't detected at the end of the parse.
+	 * @return the start of the query following the common table expressions.
 	 */
-	private static int advanceOverCTEInnerQuery(String sql, int offset) {
-		int brackets = 0;
-		int index = offset;
-		boolean inString = false;
-		for (; index < sql.length(); ++index) {
-			if (sql.charAt(index) == '\'') {
-				inString = true;
-			} else if (sql.charAt(index) == '\'' && inString) {
-				inString = false;
-			} else if (sql.charAt(index) == '(' && !inString) {
-				brackets++;
-			} else if (sql.charAt(index) == ')' && !inString) {
-				brackets--;
-				if (brackets == 0) {
-					break;
-				}
+	public static int locateQueryInCTEStatement(String sql, int offset) {
+		// the expressions are all in parentheses, the first select outside of them starts the query.
+		for (Token token : SqlTokenizer.tokenize(sql)) {
+			if (token.getStart() >= offset && token.getDepth() == 0 && token.isWord("select")) {
+				return token.getStart();
 			}
 		}
-
-		if (brackets > 0) {
-			throw new IllegalArgumentException(
-					"Failed to parse the CTE query inner query because closing ')' was not found.");
-		}
-
-		return index - offset + 1;
+		throw new IllegalArgumentException(String.format(Locale.ROOT,
+				"Failed to locate the query after CTE expressions at offset %d, SQL [%s]", offset, sql));
 	}
 
 }
@@ -0,0 +1,188 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * splits SQL into tokens in a single pass, enough to find the clauses of a query without parsing it.
+ * <p>
+ * Comments are dropped, string literals and quoted identifiers become one token each, and every token knows how deep
+ * inside parentheses it is, so keywords of sub queries are not taken for keywords of the query itself.
+ *
+ * @author Jarvis Song
+ */
+public final class SqlTokenizer {
+
+	private SqlTokenizer() {}
+
+	public enum Type {
+		WORD, NUMBER, STRING, QUOTED, PARAMETER, OPEN, CLOSE, COMMA, SYMBOL
+	}
+
+	public static List<Token> tokenize(String sql) {
+		List<Token> tokens = new ArrayList<>();
+		int length = sql.length();
+		int depth = 0;
+		int i = 0;
+		while (i < length) {
+			char c = sql.charAt(i);
+			int start = i;
+			if (Character.isWhitespace(c)) {
+				i++;
+			}
+			else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+				i = sql.indexOf('\n', i);
+				i = i < 0 ? length : i + 1;
+			}
+			else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+				i = sql.indexOf("*/", i + 2);
+				i = i < 0 ? length : i + 2;
+			}
+			else if (c == '\'') {
+				i = skipQuoted(sql, i, '\'');
+				tokens.add(new Token(Type.STRING, start, i, depth, null));
+			}
+			else if (c == '"' || c == '`') {
+				i = skipQuoted(sql, i, c);
+				tokens.add(new Token(Type.QUOTED, start, i, depth, null));
+			}
+			else if (c == '[' && !followsOperand(tokens, i)) {
+				// sql server quoted identifier, otherwise an array subscript.
+				i = skipQuoted(sql, i, ']');
+				tokens.add(new Token(Type.QUOTED, start, i, depth, null));
+			}
+			else if (Character.isLetter(c) || c == '_' || c == '@' || c == '#') {
+				i++;
+				while (i < length && isWordPart(sql.charAt(i))) {
+					i++;
+				}
+				tokens.add(new Token(Type.WORD, start, i, depth, sql.substring(start, i).toLowerCase(Locale.ROOT)));
+			}
+			else if (Character.isDigit(c)) {
+				i++;
+				while (i < length && (isWordPart(sql.charAt(i)) || sql.charAt(i) == '.')) {
+					i++;
+				}
+				tokens.add(new Token(Type.NUMBER, start, i, depth, null));
+			}
+			else if (c == '(') {
+				tokens.add(new Token(Type.OPEN, start, ++i, depth++, null));
+			}
+			else if (c == ')') {
+				depth = Math.max(0, depth - 1);
+				tokens.add(new Token(Type.CLOSE, start, ++i, depth, null));
+			}
+			else if (c == ',') {
+				tokens.add(new Token(Type.COMMA, start, ++i, depth, null));
+			}
+			else if (c == '?') {
+				tokens.add(new Token(Type.PARAMETER, start, ++i, depth, null));
+			}
+			else {
+				tokens.add(new Token(Type.SYMBOL, start, ++i, depth, null));
+			}
+		}
+		return tokens;
+	}
+
+	private static boolean isWordPart(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#' || c == '@';
+	}
+
+	private static boolean followsOperand(List<Token> tokens, int index) {
+		if (tokens.isEmpty()) {
+			return false;
+		}
+		Token last = tokens.get(tokens.size() - 1);
+		Type type = last.getType();
+		return last.getEnd() == index && (type == Type.WORD || type == Type.QUOTED || type == Type.CLOSE);
+	}
+
+	/**
+	 * @return the index after the closing quote, a doubled closing quote is an escaped one.
+	 */
+	private static int skipQuoted(String sql, int start, char close) {
+		int i = start + 1;
+		while (i < sql.length()) {
+			if (sql.charAt(i) == close) {
+				if (i + 1 < sql.length() && sql.charAt(i + 1) == close) {
+					i += 2;
+					continue;
+				}
+				return i + 1;
+			}
+			i++;
+		}
+		return sql.length();
+	}
+
+	public static class Token {
+
+		private final Type type;
+
+		private final int start;
+
+		private final int end;
+
+		private final int depth;
+
+		private final String word;
+
+		Token(Type type, int start, int end, int depth, String word) {
+			this.type = type;
+			this.start = start;
+			this.end = end;
+			this.depth = depth;
+			this.word = word;
+		}
+
+		public Type getType() {
+			return type;
+		}
+
+		public int getStart() {
+			return start;
+		}
+
+		public int getEnd() {
+			return end;
+		}
+
+		/**
+		 * @return number of parentheses around the token, 0 for the query itself.
+		 */
+		public int getDepth() {
+			return depth;
+		}
+
+		/**
+		 * @return the lower case text of a {@link Type#WORD}, {@literal null} for other tokens.
+		 */
+		public String getWord() {
+			return word;
+		}
+
+		public boolean isWord(String word) {
+			return word.equals(this.word);
+		}
+	}
+}
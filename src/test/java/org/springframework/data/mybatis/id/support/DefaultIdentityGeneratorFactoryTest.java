@@ -56,4 +56,11 @@ public class DefaultIdentityGeneratorFactoryTest<ID extends Serializable, T> {
 		assertTrue(identityGenerator instanceof UUIDGenerator);
 	}
 
+	@Test
+	public void testResolveSnowflake() {
+		IdentityGenerator<ID> identityGenerator = identityGeneratorFactory.resolve(GenerationType.AUTO, "snowflake",
+				null);
+		assertTrue(identityGenerator instanceof SnowflakeGenerator);
+	}
+
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018-present the original author or authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.springframework.data.mybatis.id.support;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.mybatis.config.sample.TestConfig;
+import org.springframework.data.mybatis.repository.dialect.Dialect;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.Assert.*;
+
+/**
+ * 
+ * @author Jarvis Song
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestConfig.class)
+@Transactional
+public class SequenceGeneratorTest {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private Dialect dialect;
+
+	@Test
+	public void testGenerate() throws Exception {
+
+		PersistentProperty<?> pp = Mockito.mock(PersistentProperty.class);
+		Mockito.when(pp.getName()).thenReturn("id");
+
+		SequenceGenerator generator = new SequenceGenerator(dataSource, dialect);
+		Long first = (Long) generator.generate(pp);
+		assertEquals(new Long(first + 1), generator.generate(pp));
+		assertEquals(new Long(first + 2), generator.generate(pp));
+
+		// another generator reads the next value of the sequence, which starts a block of its own.
+		SequenceGenerator other = new SequenceGenerator(dataSource, dialect);
+		assertEquals(new Long(first + SequenceGenerator.DEFAULT_ALLOCATION_SIZE), other.generate(pp));
+		assertEquals(new Long(first + 3), generator.generate(pp));
+	}
+
+	@Test(expected = IdentityGenerationException.class)
+	public void testSequenceIncrementingByOtherAmountFails() throws Exception {
+		new JdbcTemplate(dataSource).execute("create sequence if not exists legacy_sequence start with 1 increment by 1");
+
+		PersistentProperty<?> pp = Mockito.mock(PersistentProperty.class);
+		Mockito.when(pp.getName()).thenReturn("id");
+		Mockito.when(pp.findAnnotation(javax.persistence.SequenceGenerator.class)).thenReturn(
+				LegacyEntity.class.getDeclaredField("id").getAnnotation(javax.persistence.SequenceGenerator.class));
+
+		// blocks of 50 ids read from a sequence incrementing by 1 would overlap.
+		new SequenceGenerator(dataSource, dialect).generate(pp);
+	}
+
+	@Test
+	public void testSequenceOfOtherSchemaIgnored() throws Exception {
+		createOtherSchemaSequence();
+
+		// the same-named sequence of the other schema increments by 1, the one of the current schema is created.
+		Long first = (Long) new SequenceGenerator(dataSource, dialect).generate(property("shadow"));
+		assertEquals(new Long(first + SequenceGenerator.DEFAULT_ALLOCATION_SIZE),
+				new SequenceGenerator(dataSource, dialect).generate(property("shadow")));
+	}
+
+	@Test(expected = IdentityGenerationException.class)
+	public void testQualifiedSequenceIncrementingByOtherAmountFails() throws Exception {
+		createOtherSchemaSequence();
+
+		new SequenceGenerator(dataSource, dialect).generate(property("qualified"));
+	}
+
+	private void createOtherSchemaSequence() {
+		JdbcTemplate template = new JdbcTemplate(dataSource);
+		template.execute("create schema if not exists sequence_schema");
+		template.execute("create sequence if not exists sequence_schema.shadow_sequence start with 1 increment by 1");
+	}
+
+	private PersistentProperty<?> property(String field) throws Exception {
+		PersistentProperty<?> pp = Mockito.mock(PersistentProperty.class);
+		Mockito.when(pp.getName()).thenReturn(field);
+		Mockito.when(pp.findAnnotation(javax.persistence.SequenceGenerator.class)).thenReturn(
+				ShadowEntity.class.getDeclaredField(field).getAnnotation(javax.persistence.SequenceGenerator.class));
+		return pp;
+	}
+
+	static class ShadowEntity {
+
+		@javax.persistence.SequenceGenerator(name = "shadow", sequenceName = "shadow_sequence")
+		private Long shadow;
+
+		@javax.persistence.SequenceGenerator(name = "qualified", schema = "sequence_schema",
+				sequenceName = "shadow_sequence")
+		private Long qualified;
+	}
+
+	static class LegacyEntity {
+
+		@javax.persistence.SequenceGenerator(name = "legacy", sequenceName = "legacy_sequence")
+		private Long id;
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018-present the original author or authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.springframework.data.mybatis.id.support;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jarvis Song
+ */
+public class SnowflakeGeneratorTest {
+
+	@Test
+	public void testIdsAreOrderedAndCarryNode() {
+		SnowflakeGeneratorConfig config = new SnowflakeGeneratorConfig();
+		config.setWorkerId(3);
+		config.setDatacenterId(1);
+		SnowflakeGenerator generator = new SnowflakeGenerator(config);
+
+		long last = 0;
+		for (int i = 0; i < 10000; i++) {
+			long id = generator.nextId();
+			assertTrue(id > last);
+			last = id;
+		}
+		// 12 bits of sequence, then 5 bits of worker and 5 bits of datacenter.
+		assertEquals(3, last >> 12 & 31);
+		assertEquals(1, last >> 17 & 31);
+	}
+
+	@Test
+	public void testClockMovedBackwards() {
+		long[] now = { System.currentTimeMillis() };
+		SnowflakeGenerator generator = new SnowflakeGenerator(null) {
+
+			@Override
+			protected long currentTimeMillis() {
+				return now[0];
+			}
+		};
+		long id = generator.nextId();
+		// a small step back keeps counting on the last millisecond.
+		now[0] -= 1000;
+		assertTrue(generator.nextId() > id);
+
+		now[0] -= SnowflakeGenerator.MAX_CLOCK_BACKWARD_MILLIS;
+		try {
+			generator.nextId();
+			fail("clock moved backwards too far");
+		} catch (IdentityGenerationException e) {
+			// expected
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWorkerIdOutOfBits() {
+		SnowflakeGeneratorConfig config = new SnowflakeGeneratorConfig();
+		config.setWorkerIdBits(2);
+		config.setWorkerId(4);
+		new SnowflakeGenerator(config);
+	}
+}
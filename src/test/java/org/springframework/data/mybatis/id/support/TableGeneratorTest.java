@@ -23,6 +23,20 @@
 
 package org.springframework.data.mybatis.id.support;
 
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import javax.sql.DataSource;
 
 import org.junit.Test;
@@ -35,6 +49,7 @@ import org.springframework.data.mapping.PersistentProperty;
 import org.springframework.data.mybatis.config.sample.TestConfig;
 import org.springframework.data.mybatis.domain.sample.User;
 import org.springframework.data.mybatis.repository.dialect.Dialect;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.transaction.annotation.Transactional;
@@ -80,5 +95,103 @@ public class TableGeneratorTest<P extends PersistentProperty<P>> {
 		assertEquals(new Long(2), generator.generate(pp));
 		assertEquals(new Long(3), generator.generate(pp));
 		assertEquals(new Long(4), generator.generate(pp));
+
+		String segment = User.class.getName() + ".id";
+		assertEquals(20, generator.getBlockSize(segment));
+		assertTrue(generator.getRefillCount(segment) >= 1);
+	}
+
+	@Test
+	public void testAdaptiveAllocationSize() throws Exception {
+
+		TableGeneratorConfig config = new TableGeneratorConfig();
+		config.setAllocationSize(2);
+		config.setMinAllocationSize(1);
+		config.setMaxAllocationSize(1000);
+		config.setInitialValue(1);
+		config.setTable("SEQUENCES");
+		config.setPkColumnName("id");
+		config.setValueColumnName("value");
+
+		TableGenerator generator = new TableGenerator(dataSource, dialect, config);
+		generator.afterPropertiesSet();
+		PersistentProperty<?> pp = Mockito.mock(PersistentProperty.class);
+		Mockito.when(pp.getOwner()).thenAnswer((InvocationOnMock mock) -> {
+			PersistentEntity<?, ?> pe = Mockito.mock(PersistentEntity.class);
+			Mockito.when(pe.getName()).thenAnswer((InvocationOnMock iom) -> User.class.getName());
+			return pe;
+		});
+		Mockito.when(pp.getName()).thenReturn("version");
+
+		Set<Serializable> ids = new HashSet<>();
+		for (int i = 0; i < 500; i++) {
+			assertTrue(ids.add(generator.generate(pp)));
+		}
+		// a burst of ids takes far less than a second per block, so blocks grow.
+		String segment = User.class.getName() + ".version";
+		assertTrue(generator.getBlockSize(segment) > 2);
+		assertTrue(generator.getRefillCount(segment) < 250);
+	}
+
+	@Test
+	public void testConcurrentGenerate() throws Exception {
+
+		TableGeneratorConfig config = new TableGeneratorConfig();
+		config.setAllocationSize(10);
+		config.setInitialValue(1);
+		config.setTable("SEQUENCES");
+		config.setPkColumnName("id");
+		config.setValueColumnName("value");
+
+		// the first prefetches fail, their blocks are allocated again when needed.
+		AtomicInteger prefetchFailures = new AtomicInteger(3);
+		DataSource failingPrefetch = new DelegatingDataSource(dataSource) {
+			@Override
+			public Connection getConnection() throws SQLException {
+				if (Thread.currentThread().getName().startsWith("mybatis-id-prefetch-")
+						&& prefetchFailures.getAndDecrement() > 0) {
+					throw new SQLException("prefetch failure");
+				}
+				return super.getConnection();
+			}
+		};
+
+		TableGenerator generator = new TableGenerator(failingPrefetch, dialect, config);
+		generator.afterPropertiesSet();
+		PersistentProperty<?> pp = Mockito.mock(PersistentProperty.class);
+		Mockito.when(pp.getOwner()).thenAnswer((InvocationOnMock mock) -> {
+			PersistentEntity<?, ?> pe = Mockito.mock(PersistentEntity.class);
+			Mockito.when(pe.getName()).thenAnswer((InvocationOnMock iom) -> User.class.getName());
+			return pe;
+		});
+		Mockito.when(pp.getName()).thenReturn("concurrent");
+
+		int threads = 8;
+		int perThread = 500;
+		Set<Serializable> ids = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit((Callable<Void>) () -> {
+					for (int j = 0; j < perThread; j++) {
+						assertTrue(ids.add(generator.generate(pp)));
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(threads * perThread, ids.size());
+		String segment = User.class.getName() + ".concurrent";
+		// hundreds of blocks were crossed, and the failing prefetches did run.
+		assertTrue(generator.getRefillCount(segment) >= threads * perThread / 10);
+		assertTrue(prefetchFailures.get() <= 0);
 	}
 }
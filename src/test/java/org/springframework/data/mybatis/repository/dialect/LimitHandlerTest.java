@@ -0,0 +1,136 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.dialect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.data.mybatis.repository.dialect.pagination.LimitHandler;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jarvis Song
+ */
+public class LimitHandlerTest {
+
+	private static final String COLUMNS = "id, name";
+
+	private static final String FROM = " from t";
+
+	private static final String CONDITION = " where a = 1";
+
+	private static final String SORTS = " order by id";
+
+	private static final String NATIVE_SQL = "select id, name from t where a = #{a} order by id";
+
+	@Test
+	public void testPostgreSQLWindowCount() {
+		LimitHandler handler = new PostgreSQLDialect().getLimitHandler();
+		assertTrue(handler.supportsWindowCount());
+		assertEquals(
+				"select id, name, count(*) over () as mybatis_total_ from t where a = 1 order by id"
+						+ " limit #{pageSize} offset #{offset}",
+				handler.processSqlWithTotal(COLUMNS, FROM, CONDITION, SORTS));
+	}
+
+	@Test
+	public void testSQLServerWindowCount() {
+		LimitHandler handler = new SQLServerDialect().getLimitHandler();
+		assertTrue(handler.supportsWindowCount());
+		assertEquals("WITH query AS (SELECT inner_query.*, ROW_NUMBER() OVER (ORDER BY CURRENT_TIMESTAMP)"
+				+ " as __mybatis_row_nr__ FROM ( select id, name, count(*) over () as mybatis_total_ from t where a = 1"
+				+ " order by id ) inner_query ) select id, name,mybatis_total_ from query"
+				+ " where __mybatis_row_nr__ <![CDATA[>]]> #{offset} and __mybatis_row_nr__ <![CDATA[<=]]> #{offsetEnd}",
+				handler.processSqlWithTotal(COLUMNS, FROM, CONDITION, SORTS));
+	}
+
+	@Test
+	public void testOracleWindowCount() {
+		LimitHandler handler = new OracleDialect().getLimitHandler();
+		assertTrue(handler.supportsWindowCount());
+		assertEquals("select * from ( select row_.*, rownum rownum_ from ( select id, name,"
+				+ " count(*) over () as mybatis_total_ from t where a = 1 order by id )"
+				+ " row_ where rownum <![CDATA[<=]]> #{offsetEnd}) where rownum_ <![CDATA[>]]> #{offset}",
+				handler.processSqlWithTotal(COLUMNS, FROM, CONDITION, SORTS));
+	}
+
+	@Test
+	public void testDB2WindowCount() {
+		LimitHandler handler = new DB2Dialect().getLimitHandler();
+		assertTrue(handler.supportsWindowCount());
+		assertEquals("select * from ( select inner2_.*, rownumber() over(order by order of inner2_) as rownumber_"
+				+ " from ( select id, name, count(*) over () as mybatis_total_ from t where a = 1 order by id ) as inner2_ )"
+				+ "  where rownumber_ <![CDATA[<=]]> #{offsetEnd} and rownumber_ <![CDATA[>]]> #{offset}",
+				handler.processSqlWithTotal(COLUMNS, FROM, CONDITION, SORTS));
+	}
+
+	@Test
+	public void testNoWindowCountOnH2AndMySQL() {
+		assertFalse(new H2Dialect().getLimitHandler().supportsWindowCount());
+		assertFalse(new MySQLDialect().getLimitHandler().supportsWindowCount());
+	}
+
+	@Test
+	public void testH2NativePage() {
+		assertNativePage(new H2Dialect(), NATIVE_SQL + " limit ? offset ?", "pageSize", "offset");
+	}
+
+	@Test
+	public void testMySQLNativePage() {
+		assertNativePage(new MySQLDialect(), NATIVE_SQL + " limit ? offset ?", "pageSize", "offset");
+	}
+
+	@Test
+	public void testPostgreSQLNativePage() {
+		assertNativePage(new PostgreSQLDialect(), NATIVE_SQL + " limit ? offset ?", "pageSize", "offset");
+	}
+
+	@Test
+	public void testSQLServerNativePage() {
+		// the lower bound comes first here, unlike the other row number dialects.
+		assertNativePage(new SQLServerDialect(),
+				"WITH query AS (SELECT inner_query.*, ROW_NUMBER() OVER (ORDER BY CURRENT_TIMESTAMP)"
+						+ " as __mybatis_row_nr__ FROM ( " + NATIVE_SQL + " ) inner_query ) select * from query"
+						+ " where __mybatis_row_nr__ > ? and __mybatis_row_nr__ <= ?",
+				"offset", "offsetEnd");
+	}
+
+	@Test
+	public void testOracleNativePage() {
+		assertNativePage(new OracleDialect(), "select * from ( select row_.*, rownum rownum_ from ( " + NATIVE_SQL
+				+ " ) row_ where rownum <= ?) where rownum_ > ?", "offsetEnd", "offset");
+	}
+
+	@Test
+	public void testDB2NativePage() {
+		assertNativePage(new DB2Dialect(),
+				"select * from ( select inner2_.*, rownumber() over(order by order of inner2_) as rownumber_ from ( "
+						+ NATIVE_SQL + " ) as inner2_ )  where rownumber_ <= ? and rownumber_ > ?",
+				"offsetEnd", "offset");
+	}
+
+	private static void assertNativePage(Dialect dialect, String sql, String... parameters) {
+		List<String> bound = new ArrayList<>();
+		assertEquals(sql, dialect.getLimitHandler().processSql(NATIVE_SQL, bound));
+		assertEquals(Arrays.asList(parameters), bound);
+	}
+}
@@ -38,16 +38,23 @@ public class QueryUtilsTest {
 	
 	@Test
 	public void testCreateCountQueryFor() {
-		assertEquals("SELECT COUNT(*) FROM ( select name, age from user where name = ? order by name,age desc )", QueryUtils.createCountQueryFor("select name, age from user where name = ? order by name,age desc"));
+		assertEquals("select count(*) from user where name = ?", QueryUtils.createCountQueryFor("select name, age from user where name = ? order by name,age desc"));
 	}
-	
+
 	@Test
 	public void testCreateCountQueryForWithClause() {
 		StringBuilder sb = new StringBuilder();
 		sb.append("with tmp as ( selct * from user ) select * from tmp");
-		assertEquals("with tmp as ( selct * from user ) SELECT COUNT(*) FROM (  select * from tmp )", QueryUtils.createCountQueryFor(sb.toString()));
-		QueryUtils.createCountQueryFor(withCaluseSql);
+		assertEquals("with tmp as ( selct * from user ) select count(*) from tmp", QueryUtils.createCountQueryFor(sb.toString()));
+		assertTrue(QueryUtils.createCountQueryFor(withCaluseSql).endsWith("select count(*) from tmp47b6eb3d_979f_4df4_9d1e_18148667f54a \"org\""));
 	}
 
-}
+	@Test
+	public void testCreateCountQueryForWrapsWhenProjectionMatters() {
+		assertEquals("select count(*) from ( select distinct name from user ) total_", QueryUtils.createCountQueryFor("select distinct name from user order by name"));
+		assertEquals("select count(*) from ( select name, count(*) from user group by name ) total_", QueryUtils.createCountQueryFor("select name, count(*) from user group by name order by name"));
+		assertEquals("select count(*) from ( select ?, name from user ) total_", QueryUtils.createCountQueryFor("select ?, name from user"));
+		assertEquals("select count(*) from ( select * from user order by name limit 10 ) total_", QueryUtils.createCountQueryFor("select * from user order by name limit 10"));
+	}
 
+}
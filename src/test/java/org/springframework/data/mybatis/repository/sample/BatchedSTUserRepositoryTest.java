@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018-present the original author or authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.springframework.data.mybatis.repository.sample;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mybatis.config.sample.TestConfig;
+import org.springframework.data.mybatis.domain.sample.STUser;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import static org.junit.Assert.*;
+
+/**
+ * lookups are only batched outside transactions, so these tests run without one.
+ * 
+ * @author Jarvis Song
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestConfig.class)
+public class BatchedSTUserRepositoryTest {
+
+	@Autowired
+	private BatchedSTUserRepository repository;
+
+	@Test
+	public void testConcurrentFindById() throws Exception {
+		List<STUser> users = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			STUser user = new STUser();
+			user.setName("batched" + i);
+			users.add(user);
+		}
+		repository.saveAll(users);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> lookups = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				int index = i % (users.size() + 1);
+				lookups.add(executor.submit(() -> {
+					if (index == users.size()) {
+						return !repository.findById("missing").isPresent();
+					}
+					Optional<STUser> found = repository.findById(users.get(index).getId());
+					return found.isPresent() && ("batched" + index).equals(found.get().getName());
+				}));
+			}
+			for (Future<Boolean> lookup : lookups) {
+				assertTrue(lookup.get());
+			}
+		}
+		finally {
+			executor.shutdown();
+			repository.deleteInBatch(users);
+		}
+	}
+}
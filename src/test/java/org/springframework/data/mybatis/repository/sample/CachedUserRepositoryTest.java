@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018-present the original author or authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.springframework.data.mybatis.repository.sample;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mybatis.config.sample.TestConfig;
+import org.springframework.data.mybatis.domain.sample.CachedUser;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import static org.junit.Assert.*;
+
+/**
+ * the entity cache is bypassed in read-write transactions, so these tests run without one.
+ * 
+ * @author Jarvis Song
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestConfig.class)
+public class CachedUserRepositoryTest {
+
+	@Autowired
+	private CachedUserRepository repository;
+
+	@Test
+	public void testFindAllByIdThroughEntityCache() {
+		List<CachedUser> users = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			users.add(new CachedUser("entityCache"));
+		}
+		try {
+			repository.saveAll(users);
+			// one cached, two read from the database.
+			assertTrue(repository.findById(users.get(1).getId()).isPresent());
+			List<CachedUser> found = repository.findAllById(
+					Arrays.asList(users.get(2).getId(), users.get(1).getId(), "missing", users.get(0).getId()));
+			assertEquals(3, found.size());
+			assertEquals(users.get(2).getId(), found.get(0).getId());
+			assertEquals(users.get(1).getId(), found.get(1).getId());
+			assertEquals(users.get(0).getId(), found.get(2).getId());
+
+			found.get(0).setName("changed");
+			assertEquals("entityCache", repository.findById(users.get(2).getId()).get().getName());
+		}
+		finally {
+			repository.deleteInBatch(users);
+		}
+		assertFalse(repository.findById(users.get(1).getId()).isPresent());
+	}
+}
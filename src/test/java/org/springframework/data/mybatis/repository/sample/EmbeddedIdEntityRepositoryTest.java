@@ -23,6 +23,8 @@
 
 package org.springframework.data.mybatis.repository.sample;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -73,6 +75,17 @@ public class EmbeddedIdEntityRepositoryTest {
 		assertFalse(embeddedIdEntityRepository.findById(entity.getEmbeddedKey()).isPresent());
 	}
 	
+	@Test
+	public void testDeleteAllById() {
+		EmbeddedIdEntity entity1 = build("key1", "key2", "field1");
+		EmbeddedIdEntity entity2 = build("key1", "key3", "field1");
+		embeddedIdEntityRepository.insert(entity1);
+		embeddedIdEntityRepository.insert(entity2);
+		embeddedIdEntityRepository.deleteAllById(Arrays.asList(entity1.getEmbeddedKey(), entity2.getEmbeddedKey()));
+		assertFalse(embeddedIdEntityRepository.findById(entity1.getEmbeddedKey()).isPresent());
+		assertFalse(embeddedIdEntityRepository.findById(entity2.getEmbeddedKey()).isPresent());
+	}
+
 	private EmbeddedIdEntity build(String key1, String key2, String field1) {
 		EmbeddedIdEntity entity = new EmbeddedIdEntity();
 		entity.setField1(field1);
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018-present the original author or authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.springframework.data.mybatis.repository.sample;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mybatis.config.sample.TestConfig;
+import org.springframework.data.mybatis.domain.sample.IdentityUser;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.Assert.*;
+
+/**
+ * 
+ * @author Jarvis Song
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestConfig.class)
+@Transactional
+public class IdentityUserRepositoryTest {
+
+	@Autowired
+	private IdentityUserRepository repository;
+
+	@Test
+	public void testSave() {
+		IdentityUser user = repository.save(new IdentityUser("first"));
+		assertNotNull(user.getId());
+		assertEquals("first", repository.findById(user.getId()).get().getName());
+	}
+
+	@Test
+	public void testSaveAllReadsGeneratedKeysOfBatch() {
+		List<IdentityUser> users = repository.saveAll(
+				Arrays.asList(new IdentityUser("a"), new IdentityUser("b"), new IdentityUser("c")));
+		Set<Long> ids = new HashSet<>();
+		for (IdentityUser user : users) {
+			assertNotNull(user.getId());
+			ids.add(user.getId());
+		}
+		assertEquals(3, ids.size());
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018-present the original author or authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.springframework.data.mybatis.repository.sample;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mybatis.config.sample.ParallelBootstrapTestConfig;
+import org.springframework.data.mybatis.domain.sample.EmbeddedIdEntity;
+import org.springframework.data.mybatis.domain.sample.EmbeddedKey;
+import org.springframework.data.mybatis.domain.sample.STUser;
+import org.springframework.data.mybatis.domain.sample.User;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.Assert.*;
+
+/**
+ * the repositories work the same when their statements are generated in parallel.
+ * 
+ * @author Jarvis Song
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = ParallelBootstrapTestConfig.class)
+@Transactional
+public class ParallelBootstrapRepositoryTest {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private STUserRepository stUserRepository;
+
+	@Autowired
+	private EmbeddedIdEntityRepository embeddedIdEntityRepository;
+
+	@Test
+	public void testGeneratedStatements() {
+		User user = new User();
+		user.setLastName("parallel");
+		userRepository.save(user);
+		assertTrue(userRepository.findById(user.getId()).isPresent());
+		assertEquals(1, userRepository.findByLastName("parallel", PageRequest.of(0, 10)).getTotalElements());
+
+		STUser stUser = new STUser();
+		stUser.setName("parallel");
+		stUserRepository.save(stUser);
+		assertEquals("parallel", stUserRepository.findById(stUser.getId()).get().getName());
+
+		EmbeddedKey key = new EmbeddedKey();
+		key.setId1("parallel1");
+		key.setId2("parallel2");
+		EmbeddedIdEntity entity = new EmbeddedIdEntity();
+		entity.setEmbeddedKey(key);
+		entity.setField1("parallel");
+		embeddedIdEntityRepository.insert(entity);
+		assertEquals("parallel", embeddedIdEntityRepository.findById(key).get().getField1());
+	}
+}
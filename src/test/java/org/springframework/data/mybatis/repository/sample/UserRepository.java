@@ -20,12 +20,18 @@ package org.springframework.data.mybatis.repository.sample;
 
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mybatis.annotations.PageCount;
+import org.springframework.data.mybatis.annotations.PageCount.Strategy;
+import org.springframework.data.mybatis.annotations.QueryCache;
 import org.springframework.data.mybatis.annotations.Statement;
 import org.springframework.data.mybatis.domain.sample.User;
+import org.springframework.data.mybatis.repository.domain.KeysetPageable;
+import org.springframework.data.mybatis.repository.domain.KeysetSlice;
 import org.springframework.data.mybatis.repository.support.MybatisRepository;
 import org.springframework.data.repository.query.Param;
 
@@ -90,6 +96,12 @@ public interface UserRepository extends MybatisRepository<User, String> {
 	//COUNT
 	int countByLastName(String name);
 
+	@QueryCache
+	int countByFirstName(String name);
+
+	@QueryCache
+	List<User> findByFirstNameIn(String... names);
+
 	//GREATER_THAN GreaterThan
 	List<User> findByAgeGreaterThan(int age);
 
@@ -117,6 +129,16 @@ public interface UserRepository extends MybatisRepository<User, String> {
 	//IS no keyword
 	List<User> findByLastName(String name);
 
+	void findByLastName(String name, Consumer<User> consumer);
+
+	KeysetSlice<User> findByLastName(String name, KeysetPageable pageable);
+
+	@PageCount(Strategy.SKIP)
+	Page<User> findByLastName(String name, Pageable pageable);
+
+	@PageCount(Strategy.WINDOW)
+	Page<User> findByFirstName(String name, Pageable pageable);
+
 	//IS_EMPTY IsEmpty  ??
 	List<User> findByLastNameIsEmpty();
 
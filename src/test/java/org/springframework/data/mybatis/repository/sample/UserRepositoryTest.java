@@ -23,17 +23,32 @@
 
 package org.springframework.data.mybatis.repository.sample;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mybatis.config.sample.TestConfig;
 import org.springframework.data.mybatis.domain.sample.User;
+import org.springframework.data.mybatis.repository.domain.KeysetPageable;
+import org.springframework.data.mybatis.repository.domain.KeysetSlice;
+import org.springframework.data.mybatis.repository.support.BatchWriteResult;
+import org.springframework.data.mybatis.repository.support.UnaffectedEntitiesException;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.junit.Assert.*;
@@ -67,6 +82,115 @@ public class UserRepositoryTest {
 	}
 	
 	
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void testQueryCacheEvictedByWrite() {
+		User first = new User();
+		first.setFirstName("queryCache");
+		User second = new User();
+		second.setFirstName("queryCache");
+		try {
+			repository.save(first);
+			assertEquals(1, repository.countByFirstName("queryCache"));
+			assertEquals(1, repository.countByFirstName("queryCache"));
+			repository.save(second);
+			assertEquals(2, repository.countByFirstName("queryCache"));
+		}
+		finally {
+			repository.deleteInBatch(Arrays.asList(first, second));
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void testQueryCacheCopiesResults() {
+		User user = new User();
+		user.setFirstName("queryCacheCopy");
+		try {
+			repository.save(user);
+			List<User> first = repository.findByFirstNameIn(new String[] { "queryCacheCopy" });
+			assertEquals(1, first.size());
+			first.get(0).setFirstName("changed");
+			first.clear();
+			List<User> second = repository.findByFirstNameIn(new String[] { "queryCacheCopy" });
+			assertEquals(1, second.size());
+			assertEquals("queryCacheCopy", second.get(0).getFirstName());
+		}
+		finally {
+			repository.deleteInBatch(Arrays.asList(user));
+		}
+	}
+
+	@Test
+	public void testInsertInBatch() {
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			User user = new User();
+			user.setId("batch" + i);
+			user.setLastName("batch");
+			users.add(user);
+		}
+		BatchWriteResult<User> result = repository.insertInBatch(users);
+		assertEquals(5, result.getEntities().size());
+		assertFalse(result.hasUnaffectedEntities());
+		assertNotNull(users.get(0).getCreatedAt());
+		assertEquals(5, repository.findByLastName("batch").size());
+	}
+
+	@Test
+	public void testSaveAll() {
+		List<User> users = new ArrayList<>();
+		users.add(new User());
+		users.add(new User());
+		repository.saveAll(users);
+		assertNotNull(users.get(0).getId());
+		assertNotNull(users.get(1).getId());
+		users.get(0).setLastName("saveAll");
+		repository.saveAll(users);
+		assertEquals("saveAll", repository.findById(users.get(0).getId()).get().getLastName());
+	}
+
+	@Test
+	public void testSaveAllTellsWrittenEntities() {
+		User existing = repository.save(new User());
+		User missing = new User();
+		missing.setId("missing");
+		User created = new User();
+		try {
+			repository.saveAll(Arrays.asList(existing, missing, created));
+			fail("updating a missing row must fail");
+		}
+		catch (UnaffectedEntitiesException e) {
+			assertEquals(Arrays.asList(missing), e.getUnaffectedEntities());
+			assertEquals(Arrays.asList(created, existing), e.getWrittenEntities());
+		}
+		assertTrue(repository.findById(created.getId()).isPresent());
+	}
+
+	@Test
+	public void testUpdateAll() {
+		User user = new User();
+		repository.save(user);
+		user.setLastName("updateAll");
+		User missing = new User();
+		missing.setId("missing");
+		BatchWriteResult<User> result = repository.updateAll(Arrays.asList(user, missing));
+		assertEquals(1, result.getUnaffectedEntities().size());
+		assertSame(missing, result.getUnaffectedEntities().get(0));
+		assertEquals("updateAll", repository.findById(user.getId()).get().getLastName());
+	}
+
+	@Test
+	public void testDeleteInBatch() {
+		List<User> users = new ArrayList<>();
+		users.add(new User());
+		users.add(new User());
+		repository.saveAll(users);
+		repository.deleteInBatch(users);
+		assertFalse(repository.findById(users.get(0).getId()).isPresent());
+		assertFalse(repository.findById(users.get(1).getId()).isPresent());
+	}
+
 	@Test
 	public void testDeleteByExample() {
 		User user = new User();
@@ -77,14 +201,45 @@ public class UserRepositoryTest {
 
 	@Test
 	public void testFindUseMapper() {
-		User user = new User();
-		user.setLastName("lastname");
-		repository.save(user);
-		User user1 = new User();
-		user1.setLastName("lastname");
-		repository.save(user1);
-		repository.findUseMapper("lastname", PageRequest.of(0, 1));
-		repository.findUseMapper("lastname");
+		Set<String> ids = new HashSet<>();
+		for (int i = 0; i < 3; i++) {
+			User user = new User();
+			user.setLastName("lastname");
+			repository.save(user);
+			ids.add(user.getId());
+		}
+		assertEquals(3, repository.findUseMapper("lastname").size());
+
+		// a full page other than the first, its total is counted.
+		Page<User> page = repository.findUseMapper("lastname", PageRequest.of(1, 1));
+		assertEquals(1, page.getContent().size());
+		assertEquals(3, page.getTotalElements());
+
+		// the last page tells its total by itself.
+		Page<User> last = repository.findUseMapper("lastname", PageRequest.of(1, 2));
+		assertEquals(1, last.getContent().size());
+		assertEquals(3, last.getTotalElements());
+
+		Set<String> read = new HashSet<>();
+		for (int i = 0; i < 3; i++) {
+			read.add(repository.findUseMapper("lastname", PageRequest.of(i, 1)).getContent().get(0).getId());
+		}
+		assertEquals(ids, read);
+	}
+
+	@Test
+	public void testNativePagesOfOneTransactionDiffer() {
+		for (int i = 0; i < 2; i++) {
+			User user = new User();
+			user.setLastName("nativePages");
+			repository.save(user);
+		}
+		// both pages are read by the session of the test transaction.
+		Page<User> first = repository.findUseMapper("nativePages", PageRequest.of(0, 1));
+		Page<User> second = repository.findUseMapper("nativePages", PageRequest.of(1, 1));
+		assertEquals(1, first.getContent().size());
+		assertEquals(1, second.getContent().size());
+		assertNotEquals(first.getContent().get(0).getId(), second.getContent().get(0).getId());
 	}
 
 	@Test
@@ -92,6 +247,112 @@ public class UserRepositoryTest {
 		repository.findByLastNameAndFirstName("lastname", null);
 	}
 
+	@Test
+	public void testFindWithConsumer() {
+		for (int i = 0; i < 3; i++) {
+			User user = new User();
+			user.setLastName("consumer");
+			repository.save(user);
+		}
+		List<User> users = new ArrayList<>();
+		repository.findByLastName("consumer", users::add);
+		assertEquals(3, users.size());
+
+		users.clear();
+		User probe = new User();
+		probe.setLastName("consumer");
+		repository.findAll(Example.of(probe), users::add);
+		assertEquals(3, users.size());
+
+		AtomicInteger count = new AtomicInteger();
+		repository.forEach(Sort.by("lastName"), user -> count.incrementAndGet());
+		assertEquals(repository.count(), count.get());
+	}
+
+	@Test
+	public void testKeysetPagination() {
+		for (int i = 0; i < 5; i++) {
+			User user = new User();
+			user.setLastName("keyset");
+			user.setFirstName("first" + (i % 2));
+			repository.save(user);
+		}
+		KeysetSlice<User> slice = repository.findByLastName("keyset",
+				KeysetPageable.first(2, Sort.by(Sort.Direction.DESC, "firstName")));
+		List<String> ids = new ArrayList<>();
+		int slices = 0;
+		while (true) {
+			slices++;
+			assertTrue(slice.getContent().size() <= 2);
+			for (User user : slice) {
+				assertFalse(ids.contains(user.getId()));
+				ids.add(user.getId());
+			}
+			if (!slice.hasNext()) {
+				break;
+			}
+			slice = repository.findByLastName("keyset", slice.nextPageable());
+		}
+		assertEquals(5, ids.size());
+		assertEquals(3, slices);
+		assertEquals("first1", repository.findById(ids.get(0)).get().getFirstName());
+
+		User probe = new User();
+		probe.setLastName("keyset");
+		KeysetSlice<User> first = repository.findAll(Example.of(probe), KeysetPageable.first(4, Sort.by("firstName")));
+		assertEquals(4, first.getContent().size());
+		assertEquals(1, repository.findAll(Example.of(probe), first.nextPageable()).getContent().size());
+	}
+
+	@Test
+	public void testPageWithoutCount() {
+		for (int i = 0; i < 5; i++) {
+			User user = new User();
+			user.setLastName("skip");
+			repository.save(user);
+		}
+		Page<User> page = repository.findByLastName("skip", PageRequest.of(0, 2));
+		assertEquals(2, page.getContent().size());
+		assertTrue(page.hasNext());
+
+		page = repository.findByLastName("skip", PageRequest.of(2, 2));
+		assertEquals(1, page.getContent().size());
+		assertFalse(page.hasNext());
+		assertEquals(5, page.getTotalElements());
+	}
+
+	@Test
+	public void testPageWithWindowCount() {
+		for (int i = 0; i < 5; i++) {
+			User user = new User();
+			user.setFirstName("window");
+			repository.save(user);
+		}
+		// h2 has no window functions, the total is counted apart.
+		Page<User> page = repository.findByFirstName("window", PageRequest.of(1, 2));
+		assertEquals(2, page.getContent().size());
+		assertEquals(5, page.getTotalElements());
+	}
+
+	@Test
+	public void testStreamReadsThroughCursor() {
+		for (int i = 0; i < 3; i++) {
+			User user = new User();
+			user.setLastName("stream");
+			user.setFirstName("cursor");
+			repository.save(user);
+		}
+		try (Stream<User> users = repository.findByLastNameAndFirstName("stream", "cursor")) {
+			assertEquals(3, users.count());
+		}
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void testStreamNeedsTransaction() {
+		repository.findByLastNameAndFirstName("stream", "cursor");
+	}
+
 	public void testFindByLastNameOrFirstName() {
 		repository.findByLastNameOrFirstName("lastname", "firstname");
 	}
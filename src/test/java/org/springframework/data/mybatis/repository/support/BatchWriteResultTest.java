@@ -0,0 +1,53 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jarvis Song
+ */
+public class BatchWriteResultTest {
+
+	@Test
+	public void testUnaffectedEntities() {
+		BatchWriteResult<String> result = new BatchWriteResult<>(Arrays.asList("a", "b", "c"), new int[] { 1, 0, 1 });
+		assertTrue(result.hasUnaffectedEntities());
+		assertEquals(Collections.singletonList("b"), result.getUnaffectedEntities());
+		assertFalse(result.hasUnknownUpdateCounts());
+		assertEquals(2, result.getTotalUpdateCount());
+	}
+
+	@Test
+	public void testUnknownUpdateCounts() {
+		BatchWriteResult<String> result = new BatchWriteResult<>(Arrays.asList("a", "b"),
+				new int[] { Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO });
+		// the driver did not tell, so no entity is reported stale.
+		assertFalse(result.hasUnaffectedEntities());
+		assertTrue(result.hasUnknownUpdateCounts());
+		assertEquals(Arrays.asList("a", "b"), result.getUnknownEntities());
+		assertEquals(0, result.getTotalUpdateCount());
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jarvis Song
+ */
+public class ExpiringCacheTest {
+
+	@Test
+	public void testPutAndEvict() {
+		ExpiringCache<Long, String> cache = new ExpiringCache<>(60, 100);
+		cache.put(1L, "one", cache.stamp(1L));
+		assertEquals("one", cache.get(1L));
+
+		cache.evict(1L);
+		assertNull(cache.get(1L));
+	}
+
+	@Test
+	public void testPutAfterEvictionIsDropped() {
+		ExpiringCache<Long, String> cache = new ExpiringCache<>(60, 100);
+		long stamp = cache.stamp(1L);
+		// a write evicted the key while the value was read.
+		cache.evict(1L);
+		cache.put(1L, "outdated", stamp);
+		assertNull(cache.get(1L));
+
+		stamp = cache.stamp(2L);
+		cache.clear();
+		cache.put(2L, "outdated", stamp);
+		assertNull(cache.get(2L));
+	}
+
+	@Test
+	public void testMaxSize() {
+		ExpiringCache<Long, String> cache = new ExpiringCache<>(60, 2);
+		for (long i = 0; i < 10; i++) {
+			cache.put(i, "v" + i, cache.stamp(i));
+		}
+		int kept = 0;
+		for (long i = 0; i < 10; i++) {
+			if (null != cache.get(i)) {
+				kept++;
+			}
+		}
+		assertTrue(kept <= 2);
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jarvis Song
+ */
+public class FindByIdBatcherTest {
+
+	@Test
+	public void testConcurrentLookupsShareQueries() throws Exception {
+		AtomicInteger queries = new AtomicInteger();
+		FindByIdBatcher<Integer, String> batcher = new FindByIdBatcher<>(ids -> {
+			queries.incrementAndGet();
+			assertEquals("ids of a batch are distinct", ids.size(), new HashSet<>(ids).size());
+			List<String> entities = new ArrayList<>();
+			for (Integer id : ids) {
+				// even ids do not exist.
+				if (id % 2 != 0) {
+					entities.add("e" + id);
+				}
+			}
+			return entities;
+		}, entity -> Integer.valueOf(entity.substring(1)), 2, 50);
+
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try {
+			List<Future<Boolean>> lookups = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				int id = i % 20;
+				lookups.add(executor.submit(() -> {
+					String entity = batcher.load(id);
+					return id % 2 == 0 ? null == entity : ("e" + id).equals(entity);
+				}));
+			}
+			for (Future<Boolean> lookup : lookups) {
+				assertTrue(lookup.get());
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertTrue(queries.get() < 1000);
+	}
+
+	@Test(timeout = 5000)
+	public void testLoneLookupDoesNotWaitForWindow() {
+		FindByIdBatcher<Integer, String> batcher = new FindByIdBatcher<>(ids -> {
+			List<String> entities = new ArrayList<>();
+			for (Integer id : ids) {
+				entities.add("e" + id);
+			}
+			return entities;
+		}, entity -> Integer.valueOf(entity.substring(1)), 60000, 50);
+		assertEquals("e1", batcher.load(1));
+		assertEquals("e2", batcher.load(2));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testFailureReachesCaller() {
+		FindByIdBatcher<Integer, String> batcher = new FindByIdBatcher<>(ids -> {
+			throw new IllegalStateException("read failed");
+		}, entity -> 0, 0, 10);
+		batcher.load(1);
+	}
+}
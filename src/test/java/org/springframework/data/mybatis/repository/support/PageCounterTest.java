@@ -0,0 +1,97 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.session.RowBounds;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mybatis.annotations.PageCount.Strategy;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jarvis Song
+ */
+public class PageCounterTest {
+
+	private final PageCounter window = new PageCounter(Strategy.WINDOW, 0);
+
+	@Test
+	public void testWindowTotalReadFromRowBounds() {
+		Page<String> page = page(PageRequest.of(0, 2), 42L);
+		assertEquals(42L, page.getTotalElements());
+		assertEquals(2, page.getContent().size());
+	}
+
+	@Test
+	public void testWindowCountsWithoutTotal() {
+		Page<String> page = page(PageRequest.of(1, 2), -1L);
+		assertEquals(7L, page.getTotalElements());
+	}
+
+	@Test
+	public void testNestedWindowQueriesKeepTheirTotals() {
+		Pageable pager = PageRequest.of(0, 2);
+		Page<String> outer = window.page(pager, new HashMap<>(), () -> Arrays.asList("a", "b"), () -> 7L, null,
+				rowBounds -> {
+					((WindowCountRowBounds) rowBounds).setTotal(42L);
+					// a page read on the same thread while the rows are mapped, e.g. by a nested select.
+					assertEquals(5L, page(pager, 5L).getTotalElements());
+					return Arrays.asList("a", "b");
+				}, "outer");
+		assertEquals(42L, outer.getTotalElements());
+	}
+
+	@Test
+	public void testCachedTotalsKeptPerCounter() {
+		AtomicInteger counts = new AtomicInteger();
+		PageCounter cached = new PageCounter(Strategy.CACHED, 60);
+		assertEquals(7L, cached(cached, counts).getTotalElements());
+		assertEquals(7L, cached(cached, counts).getTotalElements());
+		assertEquals(1, counts.get());
+
+		// another repository counts on its own.
+		assertEquals(7L, cached(new PageCounter(Strategy.CACHED, 60), counts).getTotalElements());
+		assertEquals(2, counts.get());
+	}
+
+	private Page<String> cached(PageCounter counter, AtomicInteger counts) {
+		return counter.page(PageRequest.of(1, 2), new HashMap<>(), () -> Arrays.asList("a", "b"), () -> {
+			counts.incrementAndGet();
+			return 7L;
+		}, null, null, "statement");
+	}
+
+	private Page<String> page(Pageable pager, long total) {
+		return window.page(pager, new HashMap<>(), () -> Arrays.asList("a", "b"), () -> 7L, null,
+				(RowBounds rowBounds) -> {
+					assertTrue(rowBounds instanceof WindowCountRowBounds);
+					if (total >= 0) {
+						((WindowCountRowBounds) rowBounds).setTotal(total);
+					}
+					return Arrays.asList("a", "b");
+				}, "statement");
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ *
+ *   Copyright 2016 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+
+package org.springframework.data.mybatis.repository.support;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.data.mybatis.repository.dialect.pagination.LimitHandler;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jarvis Song
+ */
+public class WindowCountPluginTest {
+
+	@Test
+	public void testTotalReadFromFirstRow() throws Throwable {
+		ResultSet resultSet = Mockito.mock(ResultSet.class);
+		Mockito.when(resultSet.next()).thenReturn(true, true, false);
+		Mockito.when(resultSet.getLong(LimitHandler.TOTAL_COLUMN)).thenReturn(42L, 7L);
+		Mockito.when(resultSet.getLong("id")).thenReturn(1L, 2L);
+
+		WindowCountRowBounds rowBounds = new WindowCountRowBounds();
+		List<Object> rows = query(resultSet, rowBounds);
+		assertEquals(42L, rowBounds.getTotal());
+		assertEquals(2, rows.size());
+		// the total is read once, from the first row.
+		Mockito.verify(resultSet, Mockito.times(1)).getLong(LimitHandler.TOTAL_COLUMN);
+	}
+
+	@Test
+	public void testNoTotalWithoutRows() throws Throwable {
+		ResultSet resultSet = Mockito.mock(ResultSet.class);
+		Mockito.when(resultSet.next()).thenReturn(false);
+
+		WindowCountRowBounds rowBounds = new WindowCountRowBounds();
+		assertTrue(query(resultSet, rowBounds).isEmpty());
+		assertEquals(-1L, rowBounds.getTotal());
+		Mockito.verify(resultSet, Mockito.never()).getLong(LimitHandler.TOTAL_COLUMN);
+	}
+
+	@Test
+	public void testOtherQueriesUntouched() throws Throwable {
+		ResultSet resultSet = Mockito.mock(ResultSet.class);
+		Mockito.when(resultSet.next()).thenReturn(true, false);
+
+		assertEquals(1, query(resultSet, RowBounds.DEFAULT).size());
+		Mockito.verify(resultSet, Mockito.never()).getLong(LimitHandler.TOTAL_COLUMN);
+	}
+
+	@Test
+	public void testOnlyWindowStatementsWrapped() {
+		WindowCountPlugin plugin = new WindowCountPlugin();
+
+		StatementHandler plain = new IdStatementHandler(RowBounds.DEFAULT);
+		assertSame(plain, plugin.plugin(plain));
+		StatementHandler window = new IdStatementHandler(new WindowCountRowBounds());
+		assertNotSame(window, plugin.plugin(window));
+	}
+
+	/**
+	 * run a statement handler reading the ids of {@code resultSet} through the plugin.
+	 */
+	private List<Object> query(ResultSet resultSet, RowBounds rowBounds) throws Throwable {
+		PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+		Mockito.when(statement.getResultSet()).thenReturn(resultSet);
+
+		Method method = StatementHandler.class.getMethod("query", Statement.class, ResultHandler.class);
+		@SuppressWarnings("unchecked")
+		List<Object> rows = (List<Object>) new WindowCountPlugin().intercept(
+				new Invocation(new IdStatementHandler(rowBounds), method, new Object[] { statement, null }));
+		return rows;
+	}
+
+	/**
+	 * reads the ids of the result set, its delegate tells the row bounds like the one of MyBatis does.
+	 */
+	private static class IdStatementHandler implements StatementHandler {
+
+		private final Delegate delegate;
+
+		IdStatementHandler(RowBounds rowBounds) {
+			this.delegate = new Delegate(rowBounds);
+		}
+
+		@Override
+		public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
+			ResultSet rs = statement.getResultSet();
+			List<Object> rows = new ArrayList<>();
+			while (rs.next()) {
+				rows.add(rs.getLong("id"));
+			}
+			@SuppressWarnings("unchecked")
+			List<E> result = (List<E>) rows;
+			return result;
+		}
+
+		@Override
+		public Statement prepare(Connection connection, Integer transactionTimeout) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void parameterize(Statement statement) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void batch(Statement statement) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public int update(Statement statement) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public <E> Cursor<E> queryCursor(Statement statement) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public BoundSql getBoundSql() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public ParameterHandler getParameterHandler() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private static class Delegate {
+
+		private final RowBounds rowBounds;
+
+		Delegate(RowBounds rowBounds) {
+			this.rowBounds = rowBounds;
+		}
+	}
+}
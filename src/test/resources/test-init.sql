@@ -41,3 +41,13 @@ ID VARCHAR(50) NOT NULL PRIMARY KEY,
 NAME VARCHAR(200)
 );
 
+CREATE TABLE CACHED_USER (
+ID VARCHAR(50) NOT NULL PRIMARY KEY,
+NAME VARCHAR(200)
+);
+
+CREATE TABLE IDENTITY_USER (
+ID BIGINT AUTO_INCREMENT PRIMARY KEY,
+NAME VARCHAR(200)
+);
+